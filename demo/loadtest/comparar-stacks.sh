@@ -0,0 +1,68 @@
+#!/usr/bin/env bash
+# Compara o stack MVC/JPA (perfil padrao) com o WebFlux/R2DBC (perfil reactive) sob a mesma carga (loadtest/pedidos.js).
+# Para cada stack: sobe a aplicacao, mede o RSS ocioso, roda o k6 amostrando o RSS e registra vazao, p99 e erros.
+# Memoria por conexao = (pico de RSS - RSS ocioso) / MAX_VUS.
+#
+#   mvn -Preactive package -DskipTests
+#   loadtest/comparar-stacks.sh 2000
+#
+# Requer java, k6, jq e curl; banco (spring.datasource / spring.r2dbc) acessivel e com dados.
+set -euo pipefail
+
+MAX_VUS=${1:-1000}
+JAR=${JAR:-target/exercicio-0.0.1-SNAPSHOT.jar}
+PORT=${PORT:-8080}
+JAVA_OPTS=${JAVA_OPTS:--Xms512m -Xmx512m}
+SAIDA=${SAIDA:-target/loadtest}
+BASE_URL="http://localhost:${PORT}"
+
+mkdir -p "$SAIDA"
+
+rss_kb() {
+    ps -o rss= -p "$1" | tr -d ' '
+}
+
+executar() {
+    local stack=$1 perfis=$2
+    SPRING_PROFILES_ACTIVE=$perfis java $JAVA_OPTS -jar "$JAR" --server.port="$PORT" > "$SAIDA/$stack.log" 2>&1 &
+    local pid=$!
+    trap "kill $pid 2>/dev/null || true" EXIT
+
+    until curl -sf "$BASE_URL/actuator/health" > /dev/null; do
+        kill -0 "$pid" 2>/dev/null || { echo "$stack nao subiu, veja $SAIDA/$stack.log"; exit 1; }
+        sleep 1
+    done
+    #Aquecimento (JIT, pools) antes de medir o RSS ocioso
+    k6 run -q -e BASE_URL="$BASE_URL" -e MAX_VUS=20 loadtest/pedidos.js > /dev/null || true
+    local ocioso pico=0
+    ocioso=$(rss_kb "$pid")
+
+    k6 run -q -e BASE_URL="$BASE_URL" -e MAX_VUS="$MAX_VUS" --summary-export "$SAIDA/$stack.json" loadtest/pedidos.js \
+        > "$SAIDA/$stack-k6.txt" 2>&1 &
+    local k6=$!
+    while kill -0 "$k6" 2>/dev/null; do
+        local atual
+        atual=$(rss_kb "$pid")
+        (( atual > pico )) && pico=$atual
+        sleep 1
+    done
+    wait "$k6" || echo "$stack: thresholds do k6 falharam (veja $SAIDA/$stack-k6.txt)"
+
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+    trap - EXIT
+
+    jq -r --arg stack "$stack" --argjson ocioso "$ocioso" --argjson pico "$pico" --argjson vus "$MAX_VUS" \
+        '[$stack,
+          (.metrics.http_reqs.rate | floor),
+          (.metrics.http_req_duration["p(99)"] | floor),
+          (.metrics.http_req_failed.value * 100 | tostring | .[0:5]),
+          ($ocioso / 1024 | floor),
+          ($pico / 1024 | floor),
+          (($pico - $ocioso) / $vus | floor)] | @tsv' "$SAIDA/$stack.json" >> "$SAIDA/resultado.tsv"
+}
+
+printf 'stack\treq/s\tp99(ms)\terros(%%)\tRSS ocioso(MB)\tRSS pico(MB)\tKB/conexao\n' > "$SAIDA/resultado.tsv"
+executar mvc-jpa "${PERFIS_MVC:-}"
+executar webflux-r2dbc "reactive${PERFIS_REACTIVE:+,$PERFIS_REACTIVE}"
+column -t -s $'\t' "$SAIDA/resultado.tsv"
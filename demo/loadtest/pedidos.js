@@ -0,0 +1,41 @@
+// Teste de carga (k6) para comparar perfis de execucao do web tier.
+//
+//   k6 run -e BASE_URL=http://localhost:8080 -e MAX_VUS=2000 loadtest/pedidos.js
+//
+// Rode uma vez com o perfil padrao (pool de threads do Tomcat) e outra com
+// SPRING_PROFILES_ACTIVE=virtual-threads, mantendo o mesmo banco e os mesmos dados.
+// Compare http_req_duration p(99) e o maior numero de VUs sem erros (http_req_failed).
+//
+// Stack MVC/JPA x WebFlux/R2DBC (perfil reactive), com memoria por conexao: loadtest/comparar-stacks.sh
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const MAX_VUS = parseInt(__ENV.MAX_VUS || '1000');
+
+export const options = {
+    scenarios: {
+        rampa: {
+            executor: 'ramping-vus',
+            startVUs: 10,
+            stages: [
+                { duration: '30s', target: MAX_VUS / 4 },
+                { duration: '30s', target: MAX_VUS / 2 },
+                { duration: '1m', target: MAX_VUS },
+                { duration: '30s', target: 0 },
+            ],
+        },
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+    thresholds: {
+        http_req_failed: ['rate<0.01'],
+    },
+};
+
+export default function () {
+    const pagina = http.get(`${BASE_URL}/api/pedidos?limit=50`);
+    check(pagina, { 'pagina 200': (r) => r.status === 200 });
+
+    const produto = http.get(`${BASE_URL}/api/produtos?limit=20`);
+    check(produto, { 'produtos 200': (r) => r.status === 200 });
+}
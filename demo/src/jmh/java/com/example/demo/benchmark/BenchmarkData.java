@@ -0,0 +1,72 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.Dto.ItensPedidoDto;
+import com.example.demo.Dto.PedidoDto;
+import com.example.demo.Dto.ProdutoDto;
+import com.example.demo.model.ItensPedidoModel;
+import com.example.demo.model.PedidoModel;
+import com.example.demo.model.ProdutoModel;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Massa de dados determinística usada pelos benchmarks
+ */
+final class BenchmarkData {
+
+    private BenchmarkData() {
+    }
+
+    static PedidoModel pedidoModel(long nroPedido, int itens) {
+        PedidoModel pedido = new PedidoModel();
+        pedido.setNroPedido(nroPedido);
+        pedido.setDatPedido(LocalDateTime.of(2024, 10, 4, 12, 0).plusMinutes(nroPedido));
+        for (int i = 0; i < itens; i++) {
+            ItensPedidoModel item = new ItensPedidoModel();
+            item.setId((int) (nroPedido * itens + i));
+            item.setQtdeItem(i % 10 + 1);
+            item.setValUnidade(BigDecimal.valueOf(990 + 100L * i, 2));
+            item.setNroPedido(nroPedido);
+            pedido.addItem(item);
+        }
+        return pedido;
+    }
+
+    static PedidoDto pedidoDto(long nroPedido, int itens) {
+        List<ItensPedidoDto> itensPedido = new ArrayList<>(itens);
+        for (int i = 0; i < itens; i++) {
+            ItensPedidoDto item = new ItensPedidoDto();
+            item.setId((int) (nroPedido * itens + i));
+            item.setQtdeItem(i % 10 + 1);
+            item.setValUnidade(BigDecimal.valueOf(990 + 100L * i, 2));
+            item.setNroPedido(nroPedido);
+            itensPedido.add(item);
+        }
+        return new PedidoDto(nroPedido, new Date(1_728_000_000_000L + nroPedido * 60_000), itensPedido);
+    }
+
+    static List<PedidoDto> pedidosDto(int pedidos, int itensPorPedido) {
+        List<PedidoDto> lista = new ArrayList<>(pedidos);
+        for (int i = 1; i <= pedidos; i++) {
+            lista.add(pedidoDto(i, itensPorPedido));
+        }
+        return lista;
+    }
+
+    static ProdutoModel produtoModel(long idProduto) {
+        ProdutoModel produto = new ProdutoModel();
+        produto.setIdProduto(idProduto);
+        produto.setDesPro("Produto " + idProduto);
+        produto.setQtdeProduto(100.0);
+        produto.setValProduto(new BigDecimal("19.90"));
+        return produto;
+    }
+
+    static ProdutoDto produtoDto(long idProduto) {
+        return new ProdutoDto(idProduto, "Produto " + idProduto, 100.0, new BigDecimal("19.90"));
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.Dto.PedidoDto;
+import com.example.demo.Dto.ProdutoDto;
+import com.example.demo.mapper.ItensPedidoMapperImpl;
+import com.example.demo.mapper.PedidoMapper;
+import com.example.demo.mapper.PedidoMapperImpl;
+import com.example.demo.mapper.ProdutoMapper;
+import com.example.demo.mapper.ProdutoMapperImpl;
+import com.example.demo.model.PedidoModel;
+import com.example.demo.model.ProdutoModel;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversão entidade <-> DTO feita em toda requisição (mappers gerados pelo MapStruct),
+ * para pedidos com 1, 100 e 10k itens
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-XX:+UseParallelGC")
+public class MappingBenchmark {
+
+    @Param({"1", "100", "10000"})
+    int itens;
+
+    PedidoMapper pedidoMapper;
+    ProdutoMapper produtoMapper;
+
+    PedidoModel pedidoModel;
+    PedidoDto pedidoDto;
+    ProdutoModel produtoModel;
+    ProdutoDto produtoDto;
+
+    @Setup
+    public void setUp() {
+        pedidoMapper = new PedidoMapperImpl(new ItensPedidoMapperImpl());
+        produtoMapper = new ProdutoMapperImpl();
+        pedidoModel = BenchmarkData.pedidoModel(1, itens);
+        pedidoDto = BenchmarkData.pedidoDto(1, itens);
+        produtoModel = BenchmarkData.produtoModel(1);
+        produtoDto = BenchmarkData.produtoDto(1);
+    }
+
+    @Benchmark
+    public PedidoDto pedidoToDto() {
+        return pedidoMapper.toDto(pedidoModel, pedidoModel.getItensPedido());
+    }
+
+    @Benchmark
+    public PedidoModel pedidoToModel() {
+        return pedidoMapper.toModel(pedidoDto);
+    }
+
+    @Benchmark
+    public ProdutoDto produtoToDto() {
+        return produtoMapper.toDto(produtoModel);
+    }
+
+    @Benchmark
+    public ProdutoModel produtoToModel() {
+        return produtoMapper.toModel(produtoDto);
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.Dto.ProdutoDto;
+import com.example.demo.mapper.ProdutoMapper;
+import com.example.demo.mapper.ProdutoMapperImpl;
+import com.example.demo.model.ItensPedidoModel;
+import com.example.demo.model.PedidoModel;
+import com.example.demo.model.ProdutoModel;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Página de produtos lida como entidade gerenciada + MapStruct, como entidade read-only + MapStruct
+ * e como projeção direta no DTO (select new, usada por ProdutoRepository.findDtosAfter).
+ * Banco H2 em memória; o objetivo é comparar a alocação por linha, então rode com o profiler de GC:
+ * mvn -Pjmh test-compile exec:exec -Djmh.include=ProjectionBenchmark -Djmh.options="-prof gc"
+ * e compare gc.alloc.rate.norm (bytes por página) entre os métodos.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-XX:+UseParallelGC")
+public class ProjectionBenchmark {
+
+    private static final int PRODUTOS = 1000;
+
+    private static final String ENTIDADES = "from ProdutoModel p where p.idProduto > 0 order by p.idProduto";
+
+    private static final String PROJECAO = "select new com.example.demo.Dto.ProdutoDto(p.idProduto, p.desPro, p.qtdeProduto, p.valProduto) "
+            + "from ProdutoModel p where p.idProduto > 0 order by p.idProduto";
+
+    @Param({"100", "1000"})
+    int linhas;
+
+    SessionFactory sessionFactory;
+    ProdutoMapper produtoMapper;
+
+    @Setup
+    public void setUp() {
+        produtoMapper = new ProdutoMapperImpl();
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(ProdutoModel.class)
+                .addAnnotatedClass(PedidoModel.class)
+                .addAnnotatedClass(ItensPedidoModel.class)
+                .setProperty(AvailableSettings.JAKARTA_JDBC_URL, "jdbc:h2:mem:projecao;DB_CLOSE_DELAY=-1")
+                .setProperty(AvailableSettings.JAKARTA_JDBC_USER, "sa")
+                .setProperty(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+                .setProperty(AvailableSettings.STATEMENT_BATCH_SIZE, "50")
+                .buildSessionFactory();
+        sessionFactory.inTransaction(session -> {
+            for (int i = 1; i <= PRODUTOS; i++) {
+                ProdutoModel produto = new ProdutoModel();
+                produto.setDesPro("Produto " + i);
+                produto.setQtdeProduto(100.0);
+                produto.setValProduto(new BigDecimal("19.90"));
+                session.persist(produto);
+            }
+        });
+    }
+
+    @TearDown
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    /**
+     * Entidades gerenciadas: snapshot para dirty checking + entrada no contexto de persistência por linha
+     */
+    @Benchmark
+    public List<ProdutoDto> entidades() {
+        return sessionFactory.fromTransaction(session -> produtoMapper.toDtos(
+                session.createSelectionQuery(ENTIDADES, ProdutoModel.class)
+                        .setMaxResults(linhas)
+                        .getResultList()));
+    }
+
+    /**
+     * Entidades read-only: sem snapshot, mas ainda hidratadas e registradas no contexto de persistência
+     */
+    @Benchmark
+    public List<ProdutoDto> entidadesReadOnly() {
+        return sessionFactory.fromTransaction(session -> produtoMapper.toDtos(
+                session.createSelectionQuery(ENTIDADES, ProdutoModel.class)
+                        .setReadOnly(true)
+                        .setMaxResults(linhas)
+                        .getResultList()));
+    }
+
+    /**
+     * Projeção: o DTO é criado direto a partir do ResultSet
+     */
+    @Benchmark
+    public List<ProdutoDto> projecao() {
+        return sessionFactory.fromTransaction(session ->
+                session.createSelectionQuery(PROJECAO, ProdutoDto.class)
+                        .setMaxResults(linhas)
+                        .getResultList());
+    }
+}
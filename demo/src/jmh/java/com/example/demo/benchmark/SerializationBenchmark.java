@@ -0,0 +1,104 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.Dto.PedidoDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serialização Jackson de listas de pedidos (3 itens cada) com 1, 100 e 10k pedidos,
+ * como feito por GET api/pedidos, em JSON, Smile e CBOR (Accept da requisição).
+ * O tamanho do corpo (e do JSON com gzip, como sai com o perfil http2) é impresso no setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-XX:+UseParallelGC")
+public class SerializationBenchmark {
+
+    private static final int ITENS_POR_PEDIDO = 3;
+
+    @Param({"1", "100", "10000"})
+    int pedidos;
+
+    @Param({"json", "smile", "cbor"})
+    String formato;
+
+    ObjectWriter writer;
+    List<PedidoDto> lista;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = switch (formato) {
+            case "smile" -> SmileMapper.builder().findAndAddModules().build();
+            case "cbor" -> CBORMapper.builder().findAndAddModules().build();
+            default -> JsonMapper.builder().findAndAddModules().build();
+        };
+        writer = objectMapper.writerFor(objectMapper.getTypeFactory().constructCollectionType(List.class, PedidoDto.class));
+        lista = BenchmarkData.pedidosDto(pedidos, ITENS_POR_PEDIDO);
+        byte[] corpo = writer.writeValueAsBytes(lista);
+        System.out.printf("%n%s, %d pedidos: %d bytes, %d bytes com gzip%n", formato, pedidos, corpo.length, gzip(corpo).length);
+    }
+
+    @Benchmark
+    public byte[] toBytes() throws IOException {
+        return writer.writeValueAsBytes(lista);
+    }
+
+    /**
+     * Escrita direta em stream (como o conversor HTTP faz), sem acumular o corpo em memória
+     */
+    @Benchmark
+    public void toStream(Blackhole blackhole) throws IOException {
+        writer.writeValue(new BlackholeOutputStream(blackhole), lista);
+    }
+
+    /**
+     * Serialização + gzip (custo de CPU da compressão da resposta)
+     */
+    @Benchmark
+    public byte[] toGzipBytes() throws IOException {
+        return gzip(writer.writeValueAsBytes(lista));
+    }
+
+    private static byte[] gzip(byte[] corpo) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(corpo.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write(corpo);
+        }
+        return bytes.toByteArray();
+    }
+
+    static final class BlackholeOutputStream extends OutputStream {
+
+        private final Blackhole blackhole;
+
+        BlackholeOutputStream(Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        @Override
+        public void write(int b) {
+            blackhole.consume(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            blackhole.consume(b);
+            blackhole.consume(len);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.demo.Dto;
+
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Resumo de uma carga em lote (quantidade gravada, lotes commitados e vazão).
+ * Se um lote falhar a carga para: registros é o que já foi commitado e também a posição
+ * (a partir de 0) do primeiro registro a reenviar; erro descreve a falha.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+public class BatchResultDto {
+    private long registros;
+    private long lotes;
+    private long tempoMs;
+    private double registrosPorSegundo;
+    private String erro;
+}
@@ -0,0 +1,24 @@
+package com.example.demo.Dto;
+
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Resumo de uma importação (linhas lidas, inseridas, atualizadas e rejeitadas, com os motivos, e vazão)
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+public class ImportResultDto {
+    private long lidos;
+    private long inseridos;
+    private long atualizados;
+    private long rejeitados;
+    private List<String> erros;
+    private long tempoMs;
+    private double registrosPorSegundo;
+}
@@ -1,11 +1,19 @@
 package com.example.demo.Dto;
 
 
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
 
 @Data
+@AllArgsConstructor //select new das consultas de leitura (ItensPedidoRepository)
+@NoArgsConstructor
 public class ItensPedidoDto {
     private Integer id;
     private Integer qtdeItem;
-    private Double valUnidade;
+    private BigDecimal valUnidade;
+    private Long idProduto;
+    private Long nroPedido;
 }
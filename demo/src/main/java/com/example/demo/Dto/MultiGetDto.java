@@ -0,0 +1,22 @@
+package com.example.demo.Dto;
+
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Resultado de uma leitura por vários IDs: registros encontrados na ordem dos IDs pedidos
+ * (sem repetições) e os IDs que não existem
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class MultiGetDto<T, N> {
+    private List<T> encontrados;
+    private List<N> naoEncontrados;
+}
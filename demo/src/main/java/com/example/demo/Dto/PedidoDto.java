@@ -1,13 +1,18 @@
 package com.example.demo.Dto;
 
+import com.example.demo.mapper.PedidoMapper;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 
 @AllArgsConstructor
+@NoArgsConstructor
 @Getter
 @Setter
 
@@ -15,6 +20,24 @@ public class PedidoDto {
     private Long nroPedido;
     private Date datPedido;
     private List<ItensPedidoDto> itensPedido;
+    /**
+     * Versão do pedido (ETag do GET condicional); ignorada na criação e na alteração
+     */
+    private Long versao;
+
+    public PedidoDto(Long nroPedido, Date datPedido, List<ItensPedidoDto> itensPedido) {
+        this(nroPedido, datPedido, itensPedido, null);
+    }
+
+    /**
+     * Usado pelas consultas de leitura (select new): data no fuso do sistema, itens preenchidos depois pelo serviço
+     */
+    public PedidoDto(Long nroPedido, LocalDateTime datPedido, Long versao) {
+        this.nroPedido = nroPedido;
+        this.datPedido = PedidoMapper.toDate(datPedido);
+        this.itensPedido = new ArrayList<>();
+        this.versao = versao;
+    }
 
     // Getters e Setters
 }
@@ -0,0 +1,29 @@
+package com.example.demo.Dto;
+
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+
+/**
+ * Resumo de pedido retornado pela busca filtrada: somente as colunas de pedidos, sem entidade nem itens
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+public class PedidoResumoDto {
+    private Long nroPedido;
+    private Date datPedido;
+
+    /**
+     * Usado pela consulta Criteria (construct): data no fuso do sistema, como em PedidoDto
+     */
+    public PedidoResumoDto(Long nroPedido, LocalDateTime datPedido) {
+        this.nroPedido = nroPedido;
+        this.datPedido = datPedido == null ? null : Date.from(datPedido.atZone(ZoneId.systemDefault()).toInstant());
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.demo.Dto;
+
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+
+/**
+ * Total de um pedido: SUM(qtdeItem * valUnidade) calculado no banco (NUMERIC, sem arredondamento de double)
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+public class PedidoTotalDto {
+    private Long nroPedido;
+    private Long qtdeItens;
+    private BigDecimal valTotal;
+
+    /**
+     * Usado pelas consultas JPQL (select new): pedido sem itens tem soma nula, que vira zero
+     */
+    public PedidoTotalDto(Long nroPedido, Long qtdeItens, BigDecimal valTotal) {
+        this.nroPedido = nroPedido;
+        this.qtdeItens = qtdeItens;
+        this.valTotal = valTotal == null ? BigDecimal.ZERO : valTotal;
+    }
+}
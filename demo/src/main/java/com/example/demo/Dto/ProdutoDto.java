@@ -3,16 +3,28 @@ package com.example.demo.Dto;
 
 import lombok.AllArgsConstructor;
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+import java.math.BigDecimal;
+
 @Getter
 @Setter
 @AllArgsConstructor
+@NoArgsConstructor
 public class ProdutoDto {
     private Long idProduto;
     private String desPro;
     private Double qtdeProduto;
-    private Double valProduto;
+    private BigDecimal valProduto;
+    /**
+     * Versão lida pelo cliente: obrigatória no PUT (lock otimista), ignorada na criação
+     */
+    private Long versao;
+
+    public ProdutoDto(Long idProduto, String desPro, Double qtdeProduto, BigDecimal valProduto) {
+        this(idProduto, desPro, qtdeProduto, valProduto, null);
+    }
 
     // Getters e Setters
 }
@@ -0,0 +1,25 @@
+package com.example.demo.Dto;
+
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Situação de um pedido aceito para processamento assíncrono (POST api/pedidos com Prefer: respond-async)
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class SolicitacaoPedidoDto {
+    private String id;
+    private Status status;
+    private Long nroPedido;
+    private String erro;
+
+    public enum Status {
+        PENDENTE, CONCLUIDO, ERRO
+    }
+}
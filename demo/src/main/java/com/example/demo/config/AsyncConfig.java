@@ -0,0 +1,16 @@
+package com.example.demo.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Habilita @Async usando o applicationTaskExecutor do Spring Boot
+ * (virtual threads quando spring.threads.virtual.enabled=true) e @Scheduled
+ * (limpeza das chaves de idempotência expiradas no JdbcIdempotencyStore).
+ */
+@Configuration
+@EnableAsync
+@EnableScheduling
+public class AsyncConfig {
+}
@@ -0,0 +1,29 @@
+package com.example.demo.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Cache em memória (Caffeine) para dados de leitura frequente e baixa alteração.
+ * O gerenciador é envolvido em TransactionAwareCacheManagerProxy: put/evict feitos dentro
+ * de uma transação só são aplicados após o commit (rollback mantém o cache intacto).
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String PRODUTOS = "produtos";
+
+    @Bean
+    public CacheManager cacheManager(@Value("${application.cache.produtos.spec}") String produtosSpec) {
+        CaffeineCacheManager caffeineCacheManager = new CaffeineCacheManager(PRODUTOS);
+        caffeineCacheManager.setCacheSpecification(produtosSpec);
+        caffeineCacheManager.setAllowNullValues(false);
+        return new TransactionAwareCacheManagerProxy(caffeineCacheManager);
+    }
+}
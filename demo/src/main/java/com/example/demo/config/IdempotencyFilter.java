@@ -0,0 +1,198 @@
+package com.example.demo.config;
+
+import com.example.demo.exception.ConflictException;
+import com.example.demo.exception.UnprocessableEntityException;
+import com.example.demo.service.IdempotencyStore;
+import com.example.demo.service.IdempotencyStore.Resposta;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Idempotency-Key no POST api/pedidos: a primeira requisição com a chave é processada e a
+ * resposta 2xx é guardada; novas tentativas com a mesma chave (e o mesmo corpo) recebem a
+ * resposta guardada sem chamar PedidoService.create. Duplicadas concorrentes esperam a primeira.
+ * Requisições sem o cabeçalho não passam pelo filtro. O corpo (lido para o hash) é limitado a
+ * application.idempotency.max-body-size; acima disso a resposta é 413.
+ */
+@Component
+@Slf4j
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Idempotency-Key";
+
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final String PATH = "/api/pedidos";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    @Autowired
+    IdempotencyStore idempotencyStore;
+
+    @Value("${application.idempotency.wait-timeout:10s}")
+    Duration waitTimeout;
+
+    @Value("${application.idempotency.max-body-size:1MB}")
+    DataSize maxBodySize;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !HttpMethod.POST.matches(request.getMethod())
+                || !PATH.equals(request.getRequestURI().substring(request.getContextPath().length()))
+                || request.getHeader(HEADER) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String chave = request.getHeader(HEADER).strip();
+        if (chave.isEmpty() || chave.length() > MAX_KEY_LENGTH) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, HEADER + " deve ter de 1 a " + MAX_KEY_LENGTH + " caracteres");
+            return;
+        }
+        chave = "POST " + PATH + ":" + chave;
+        int limite = (int) Math.min(maxBodySize.toBytes(), Integer.MAX_VALUE - 1);
+        if (request.getContentLengthLong() > limite) {
+            response.sendError(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE, "Corpo acima de " + maxBodySize);
+            return;
+        }
+        //sem Content-Length (chunked): lê no máximo limite + 1 bytes
+        byte[] corpo = request.getInputStream().readNBytes(limite + 1);
+        if (corpo.length > limite) {
+            response.sendError(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE, "Corpo acima de " + maxBodySize);
+            return;
+        }
+        String hashCorpo = DigestUtils.md5DigestAsHex(corpo);
+
+        Optional<Resposta> anterior;
+        try {
+            anterior = idempotencyStore.reservar(chave, hashCorpo, waitTimeout);
+        } catch (UnprocessableEntityException e) {
+            response.sendError(HttpStatus.UNPROCESSABLE_ENTITY.value(), e.getMessage());
+            return;
+        } catch (ConflictException e) {
+            response.sendError(HttpServletResponse.SC_CONFLICT, e.getMessage());
+            return;
+        }
+        if (anterior.isPresent()) {
+            log.debug("IdempotencyFilter::replay {}", chave);
+            replay(anterior.get(), response);
+            return;
+        }
+
+        ContentCachingResponseWrapper resposta = new ContentCachingResponseWrapper(response);
+        boolean concluida = false;
+        try {
+            filterChain.doFilter(new CorpoLidoRequest(request, corpo), resposta);
+            if (resposta.getStatus() >= 200 && resposta.getStatus() < 300) {
+                idempotencyStore.concluir(chave, new Resposta(resposta.getStatus(), resposta.getContentType(),
+                        resposta.getHeader(HttpHeaders.LOCATION), resposta.getContentAsByteArray()));
+                concluida = true;
+            }
+        } finally {
+            if (!concluida) {
+                idempotencyStore.liberar(chave);
+            }
+            resposta.copyBodyToResponse();
+        }
+    }
+
+    private void replay(Resposta anterior, HttpServletResponse response) throws IOException {
+        response.setStatus(anterior.status());
+        response.setHeader(REPLAYED_HEADER, "true");
+        if (anterior.contentType() != null) {
+            response.setContentType(anterior.contentType());
+        }
+        if (anterior.location() != null) {
+            response.setHeader(HttpHeaders.LOCATION, anterior.location());
+        }
+        response.setContentLength(anterior.corpo().length);
+        response.getOutputStream().write(anterior.corpo());
+    }
+
+    /**
+     * Requisição cujo corpo já foi lido (para o hash): entrega os mesmos bytes ao controller
+     */
+    private static final class CorpoLidoRequest extends HttpServletRequestWrapper {
+
+        private final byte[] corpo;
+
+        CorpoLidoRequest(HttpServletRequest request, byte[] corpo) {
+            super(request);
+            this.corpo = corpo;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream bytes = new ByteArrayInputStream(corpo);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return bytes.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return bytes.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return bytes.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(),
+                    encoding == null ? StandardCharsets.UTF_8 : Charset.forName(encoding)));
+        }
+
+        @Override
+        public int getContentLength() {
+            return corpo.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return corpo.length;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.demo.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Habilita @Timed nos beans (ex.: serviços), publicando um timer por classe/método
+ */
+@Configuration
+public class MetricsConfig {
+
+    public static final String SERVICE_TIMER = "demo.service";
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.demo.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Envia transações @Transactional(readOnly = true) para as réplicas (round-robin entre as disponíveis)
+ * e todo o resto para o primário. Uma réplica fica indisponível quando o atraso de replicação
+ * (lagQuery) passa de maxLag ou a consulta falha; sem réplicas disponíveis a leitura vai ao primário.
+ * As réplicas começam fora do roteamento: a primeira verificação roda no agendador logo após a
+ * inicialização, para que uma réplica lenta ou inacessível não atrase o startup.
+ * Deve ser usado atrás de um LazyConnectionDataSourceProxy: a conexão só é obtida no primeiro comando,
+ * quando o readOnly da transação já está definido.
+ */
+@Slf4j
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARY = "primary";
+
+    private final List<Replica> replicas;
+
+    private final String lagQuery;
+
+    private final Duration maxLag;
+
+    private final AtomicInteger proxima = new AtomicInteger();
+
+    public ReadWriteRoutingDataSource(DataSource primary, List<DataSource> replicas, String lagQuery, Duration maxLag) {
+        this.lagQuery = lagQuery;
+        this.maxLag = maxLag;
+        this.replicas = new ArrayList<>(replicas.size());
+        Map<Object, Object> destinos = new HashMap<>();
+        destinos.put(PRIMARY, primary);
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = new Replica("replica-" + i, replicas.get(i));
+            this.replicas.add(replica);
+            destinos.put(replica.nome, replica.dataSource);
+        }
+        setTargetDataSources(destinos);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return PRIMARY;
+        }
+        int total = replicas.size();
+        int inicio = Math.floorMod(proxima.getAndIncrement(), Math.max(total, 1));
+        for (int i = 0; i < total; i++) {
+            Replica replica = replicas.get((inicio + i) % total);
+            if (replica.disponivel) {
+                return replica.nome;
+            }
+        }
+        return PRIMARY;
+    }
+
+    /**
+     * Mede o atraso de replicação de cada réplica e atualiza a disponibilidade (sem initialDelay:
+     * a primeira execução é logo após o startup)
+     */
+    @Scheduled(fixedDelayString = "${application.datasource.routing.check-interval:PT5S}")
+    public void verificarReplicas() {
+        for (Replica replica : replicas) {
+            boolean disponivel;
+            try {
+                Double segundos = replica.jdbcTemplate.queryForObject(lagQuery, Double.class);
+                disponivel = segundos != null && segundos <= maxLag.toMillis() / 1000.0;
+                if (!disponivel) {
+                    log.debug("ReadWriteRoutingDataSource::verificarReplicas {} com atraso de {} s", replica.nome, segundos);
+                }
+            } catch (RuntimeException e) {
+                log.debug("ReadWriteRoutingDataSource::verificarReplicas {} inacessível: {}", replica.nome, e.getMessage());
+                disponivel = false;
+            }
+            if (disponivel != replica.disponivel) {
+                log.info("Réplica {} {}", replica.nome, disponivel ? "disponível para leitura" : "fora do roteamento, leituras no primário");
+            }
+            replica.disponivel = disponivel;
+        }
+    }
+
+    /**
+     * Fecha os pools das réplicas (o primário é um bean e é fechado pelo Spring)
+     */
+    public void close() {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    log.warn("Erro ao fechar a réplica {}", replica.nome, e);
+                }
+            }
+        }
+    }
+
+    private static final class Replica {
+
+        private final String nome;
+
+        private final DataSource dataSource;
+
+        private final JdbcTemplate jdbcTemplate;
+
+        private volatile boolean disponivel;
+
+        private Replica(String nome, DataSource dataSource) {
+            this.nome = nome;
+            this.dataSource = dataSource;
+            this.jdbcTemplate = new JdbcTemplate(dataSource);
+            this.jdbcTemplate.setQueryTimeout(2);
+        }
+    }
+}
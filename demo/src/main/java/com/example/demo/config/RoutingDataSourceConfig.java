@@ -0,0 +1,75 @@
+package com.example.demo.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Leituras nas réplicas (application.datasource.routing.enabled=true, perfil read-replica):
+ * o DataSource da aplicação passa a ser um ReadWriteRoutingDataSource atrás de um LazyConnectionDataSourceProxy.
+ * Transações readOnly vão para as réplicas; escritas, leituras fora de transação e o Flyway usam o primário.
+ */
+@Configuration
+@EnableConfigurationProperties(RoutingDataSourceProperties.class)
+@ConditionalOnProperty(name = "application.datasource.routing.enabled", havingValue = "true")
+public class RoutingDataSourceConfig {
+
+    /**
+     * Pool do primário, configurado por spring.datasource e spring.datasource.hikari
+     */
+    @Bean
+    @FlywayDataSource
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    /**
+     * Roteador com um pool por réplica; os pools das réplicas são fechados junto com o contexto (close)
+     */
+    @Bean
+    public ReadWriteRoutingDataSource readWriteRoutingDataSource(HikariDataSource primaryDataSource,
+                                                                 RoutingDataSourceProperties properties,
+                                                                 MeterRegistry meterRegistry) {
+        List<DataSource> replicas = new ArrayList<>();
+        for (RoutingDataSourceProperties.Replica replica : properties.getReplicas()) {
+            HikariDataSource pool = new HikariDataSource();
+            pool.setPoolName(Objects.requireNonNullElse(primaryDataSource.getPoolName(), "demo-pool") + "-replica-" + replicas.size());
+            pool.setDriverClassName(primaryDataSource.getDriverClassName());
+            pool.setJdbcUrl(replica.getUrl());
+            pool.setUsername(replica.getUsername());
+            pool.setPassword(replica.getPassword());
+            pool.setMaximumPoolSize(replica.getMaximumPoolSize());
+            pool.setAutoCommit(primaryDataSource.isAutoCommit());
+            pool.setReadOnly(true);
+            pool.setConnectionTimeout(primaryDataSource.getConnectionTimeout());
+            pool.setDataSourceProperties(primaryDataSource.getDataSourceProperties());
+            pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            replicas.add(pool);
+        }
+        return new ReadWriteRoutingDataSource(primaryDataSource, replicas, properties.getLagQuery(), properties.getMaxLag());
+    }
+
+    /**
+     * DataSource usado pelo JPA, JdbcTemplate e transações
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource readWriteRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(readWriteRoutingDataSource);
+    }
+}
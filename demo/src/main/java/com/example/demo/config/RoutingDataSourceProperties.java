@@ -0,0 +1,42 @@
+package com.example.demo.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Réplicas de leitura (application.datasource.routing); o primário continua em spring.datasource
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "application.datasource.routing")
+public class RoutingDataSourceProperties {
+
+    private boolean enabled;
+
+    /**
+     * Atraso de replicação máximo aceito para ler de uma réplica
+     */
+    private Duration maxLag = Duration.ofSeconds(5);
+
+    /**
+     * Consulta que retorna o atraso da réplica em segundos (padrão: PostgreSQL em streaming replication)
+     */
+    private String lagQuery = "select coalesce(case when pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() then 0 "
+            + "else extract(epoch from now() - pg_last_xact_replay_timestamp()) end, 0)";
+
+    private List<Replica> replicas = new ArrayList<>();
+
+    @Getter
+    @Setter
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+    }
+}
@@ -1,9 +1,18 @@
 package com.example.demo.interfaces;
 
+import com.example.demo.Dto.MultiGetDto;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
 import java.util.List;
 
 public interface IResource<T, N>  {
 
+    /**
+     * Formato binário Smile (Jackson), alternativa compacta ao JSON nos GET (Accept: application/x-jackson-smile)
+     */
+    String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+
 
 
 /**
@@ -36,10 +45,33 @@ public interface IResource<T, N>  {
     public T get(N id);
 
     /**
-     * Retorna uma lista de T
+     * Retorna uma página de T a partir do cursor N(after) informado (keyset)
+     * @param after último identificador recebido na página anterior (nulo = primeira página)
+     * @param limit tamanho da página
+     * @return
+     */
+    public List<T> get(N after, int limit);
+
+    /**
+     * Consulta vários T pelos identificadores N informados na query string (?ids=1,2,3)
+     * @param ids
+     * @return encontrados (na ordem de ids) e identificadores não encontrados
+     */
+    public MultiGetDto<T, N> get(List<N> ids);
+
+    /**
+     * Igual a get(ids), com os identificadores no corpo (array JSON), para listas longas demais para a URL
+     * @param ids
+     * @return
+     */
+    public MultiGetDto<T, N> lookup(List<N> ids);
+
+    /**
+     * Retorna todos os registros de T como um array JSON escrito direto na resposta,
+     * à medida que as linhas são lidas do banco
      * @return
      */
-    public List<T> get();
+    public StreamingResponseBody stream();
 
     /**
      * Iremos passar N(id) para buscar o registro e T(entity) para atualizar o objeto;
@@ -49,6 +81,14 @@ public interface IResource<T, N>  {
      */
     public T update(N id, T entity);
 
+    /**
+     * Atualiza somente os campos enviados em N(id), no formato JSON Merge Patch (application/merge-patch+json)
+     * @param id
+     * @param patch
+     * @return
+     */
+    public T patch(N id, ObjectNode patch);
+
     /**
      * Deleta um registro com base no identificador N(id)
      * @param id
@@ -2,9 +2,12 @@ package com.example.demo.interfaces;
 
 
 import com.example.demo.Dto.ItensPedidoDto;
+import com.example.demo.Dto.MultiGetDto;
 import com.example.demo.Dto.PedidoDto;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  *
@@ -13,13 +16,56 @@ import java.util.List;
  */
 public interface IService<T, N> {
 
+    /**
+     * Tamanho máximo de uma página na leitura paginada (keyset)
+     */
+    int MAX_PAGE_SIZE = 1000;
+
     public T create(T entity);
 
     public T read(N id);
 
-    public List<T> read();
+    /**
+     * Leitura paginada por keyset: retorna até limit registros com identificador maior que after
+     * (after nulo = primeira página), ordenados pelo identificador.
+     * @param after último identificador da página anterior
+     * @param limit tamanho da página (limitado a MAX_PAGE_SIZE)
+     * @return
+     */
+    public List<T> read(N after, int limit);
+
+    /**
+     * Leitura por vários identificadores em consultas IN (blocos de tamanho fixo), sem uma consulta por ID.
+     * @param ids identificadores pedidos (repetidos e nulos são ignorados)
+     * @return encontrados na ordem de ids e identificadores inexistentes
+     */
+    public MultiGetDto<T, N> readAll(List<N> ids);
+
+    /**
+     * Percorre todos os registros em um cursor JDBC, entregando um a um ao consumer,
+     * sem carregar a lista inteira em memória.
+     * @param consumer
+     */
+    public void stream(Consumer<T> consumer);
 
     public T update(N id, T entity);
 
+    /**
+     * Atualização parcial (JSON Merge Patch): altera somente os campos presentes no documento.
+     * @param id
+     * @param patch campos a alterar (null limpa o campo)
+     * @return estado atualizado
+     */
+    public T patch(N id, ObjectNode patch);
+
     public void delete(N id);
-}
\ No newline at end of file
+
+    /**
+     * Normaliza o tamanho de página solicitado para o intervalo [1, MAX_PAGE_SIZE]
+     * @param limit
+     * @return
+     */
+    static int pageSize(int limit) {
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
+}
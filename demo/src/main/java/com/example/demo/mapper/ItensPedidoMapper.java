@@ -0,0 +1,39 @@
+package com.example.demo.mapper;
+
+import com.example.demo.Dto.ItensPedidoDto;
+import com.example.demo.model.ItensPedidoModel;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingConstants;
+import org.mapstruct.MappingTarget;
+import org.mapstruct.NullValueMappingStrategy;
+
+import java.util.List;
+
+/**
+ * Conversão entre ItensPedidoModel e ItensPedidoDto (implementação gerada pelo MapStruct).
+ * O vínculo com o pedido (ItensPedidoModel.pedido) é responsabilidade de quem chama.
+ * Listas nulas viram listas vazias.
+ */
+@Mapper(componentModel = MappingConstants.ComponentModel.SPRING,
+        nullValueIterableMappingStrategy = NullValueMappingStrategy.RETURN_DEFAULT)
+public interface ItensPedidoMapper {
+
+    ItensPedidoDto toDto(ItensPedidoModel model);
+
+    List<ItensPedidoDto> toDtos(List<ItensPedidoModel> models);
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "pedido", ignore = true)
+    ItensPedidoModel toModel(ItensPedidoDto dto);
+
+    List<ItensPedidoModel> toModels(List<ItensPedidoDto> dtos);
+
+    /**
+     * PUT: copia quantidade e valor para a entidade gerenciada (id e pedido ficam com o serviço)
+     */
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "pedido", ignore = true)
+    @Mapping(target = "nroPedido", ignore = true)
+    void update(ItensPedidoDto dto, @MappingTarget ItensPedidoModel model);
+}
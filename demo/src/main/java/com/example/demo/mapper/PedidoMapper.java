@@ -0,0 +1,87 @@
+package com.example.demo.mapper;
+
+import com.example.demo.Dto.ItensPedidoDto;
+import com.example.demo.Dto.PedidoDto;
+import com.example.demo.model.ItensPedidoModel;
+import com.example.demo.model.PedidoModel;
+import org.mapstruct.*;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneRules;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Conversão entre o agregado PedidoModel (com itens) e PedidoDto (implementação gerada pelo MapStruct).
+ * datPedido: LocalDateTime (fuso do sistema) <-> Date pelos métodos abaixo, sem ZonedDateTime intermediário.
+ * Em fuso de offset fixo (ex.: UTC em produção) o offset é calculado uma vez; em fuso com horário de verão
+ * o offset depende do instante e toLocalDateTime cria um Instant por chamada.
+ */
+@Mapper(componentModel = MappingConstants.ComponentModel.SPRING,
+        uses = ItensPedidoMapper.class,
+        injectionStrategy = InjectionStrategy.CONSTRUCTOR)
+public interface PedidoMapper {
+
+    ZoneRules ZONE_RULES = ZoneId.systemDefault().getRules();
+
+    /**
+     * Offset do fuso do sistema se ele for fixo, senão null
+     */
+    ZoneOffset OFFSET_FIXO = ZONE_RULES.isFixedOffset() ? ZONE_RULES.getOffset(Instant.EPOCH) : null;
+
+    /**
+     * @param model pedido
+     * @param itens itens do pedido já carregados (ver PedidoService: entity graph ou IN por página)
+     */
+    @Mapping(target = "itensPedido", source = "itens")
+    PedidoDto toDto(PedidoModel model, List<ItensPedidoModel> itens);
+
+    @Mapping(target = "nroPedido", ignore = true)
+    @Mapping(target = "versao", ignore = true)
+    @Mapping(target = "datPedido", defaultExpression = "java(java.time.LocalDateTime.now())")
+    PedidoModel toModel(PedidoDto dto);
+
+    /**
+     * PUT: atualiza a data do pedido (data nula mantém a atual); os itens são substituídos pelo serviço
+     */
+    @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+    @Mapping(target = "nroPedido", ignore = true)
+    @Mapping(target = "versao", ignore = true)
+    @Mapping(target = "itensPedido", ignore = true)
+    void update(PedidoDto dto, @MappingTarget PedidoModel model);
+
+    @AfterMapping
+    default void vincularItensAoPedido(@MappingTarget PedidoModel model) {
+        model.getItensPedido().forEach(item -> item.setPedido(model));
+    }
+
+    @AfterMapping
+    default void preencherNroPedidoDosItens(PedidoModel model, @MappingTarget PedidoDto dto) {
+        for (ItensPedidoDto item : dto.getItensPedido()) {
+            item.setNroPedido(model.getNroPedido());
+        }
+    }
+
+    /**
+     * Estático para ser usado também sem o mapper injetado (construtor de projeção do PedidoDto)
+     */
+    static Date toDate(LocalDateTime value) {
+        if (value == null) {
+            return null;
+        }
+        ZoneOffset offset = OFFSET_FIXO != null ? OFFSET_FIXO : ZONE_RULES.getOffset(value);
+        return new Date(value.toEpochSecond(offset) * 1000 + value.getNano() / 1_000_000);
+    }
+
+    default LocalDateTime toLocalDateTime(Date value) {
+        if (value == null) {
+            return null;
+        }
+        long millis = value.getTime();
+        ZoneOffset offset = OFFSET_FIXO != null ? OFFSET_FIXO : ZONE_RULES.getOffset(Instant.ofEpochMilli(millis));
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(millis, 1000), (int) Math.floorMod(millis, 1000) * 1_000_000, offset);
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.demo.mapper;
+
+import com.example.demo.Dto.ProdutoDto;
+import com.example.demo.model.ProdutoModel;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingConstants;
+import org.mapstruct.MappingTarget;
+
+import java.util.List;
+
+/**
+ * Conversão entre ProdutoModel e ProdutoDto (implementação gerada pelo MapStruct em tempo de compilação)
+ */
+@Mapper(componentModel = MappingConstants.ComponentModel.SPRING)
+public interface ProdutoMapper {
+
+    ProdutoDto toDto(ProdutoModel model);
+
+    List<ProdutoDto> toDtos(List<ProdutoModel> models);
+
+    @Mapping(target = "idProduto", ignore = true)
+    @Mapping(target = "versao", ignore = true)
+    ProdutoModel toModel(ProdutoDto dto);
+
+    /**
+     * PUT: copia todos os campos do DTO para a entidade gerenciada (exceto o id)
+     */
+    @Mapping(target = "idProduto", ignore = true)
+    @Mapping(target = "versao", ignore = true)
+    void update(ProdutoDto dto, @MappingTarget ProdutoModel model);
+}
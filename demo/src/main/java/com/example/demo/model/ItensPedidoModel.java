@@ -4,17 +4,32 @@ package com.example.demo.model;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.DynamicUpdate;
+
+import java.math.BigDecimal;
 
 @Getter
 @Setter
 @Entity
-@Table(name = "itens-pedido")
+@DynamicUpdate //UPDATE somente com as colunas alteradas
+@Table(name = "itens_pedido")
 public class ItensPedidoModel {
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "itens_pedido_seq")
+    @SequenceGenerator(name = "itens_pedido_seq", sequenceName = "itens_pedido_seq", allocationSize = 50)
     private Integer id;
     @Column
     private Integer qtdeItem;
+    @Column(precision = 15, scale = 2) //NUMERIC: valores monetarios exatos
+    private BigDecimal valUnidade;
     @Column
-    private Double valUnidade;
+    private Long idProduto;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "nro_pedido")
+    private PedidoModel pedido;
+
+    //Somente leitura: permite agrupar/mapear pelo pedido sem inicializar o proxy
+    @Column(name = "nro_pedido", insertable = false, updatable = false)
+    private Long nroPedido;
 }
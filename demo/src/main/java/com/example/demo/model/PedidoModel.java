@@ -3,20 +3,37 @@ package com.example.demo.model;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 @Entity
+@DynamicUpdate //UPDATE somente com as colunas alteradas
 @Table(name = "pedidos")
 @Getter
 @Setter
 public class PedidoModel {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pedidos_seq")
+    @SequenceGenerator(name = "pedidos_seq", sequenceName = "pedidos_seq", allocationSize = 50) //pooled: 1 chamada a sequence a cada 50 inserts (IDENTITY desliga o batch de insert)
     private long nroPedido;
 
     @Column(name = "data_pedido", nullable = false)
     private LocalDateTime datPedido;
 
+    @Version //ETag do GET e lock otimista; incrementada também quando os itens mudam
+    private Long versao;
+
+    //LAZY por padrao: use PedidoRepository.findWithItensPedidoByNroPedido (entity graph) ou a carga em lote por IN
+    @OneToMany(mappedBy = "pedido", cascade = CascadeType.ALL, orphanRemoval = true)
+    private List<ItensPedidoModel> itensPedido = new ArrayList<>();
+
+    public void addItem(ItensPedidoModel item) {
+        item.setPedido(this);
+        itensPedido.add(item);
+    }
+
 }
@@ -1,17 +1,30 @@
 package com.example.demo.model;
 
 
+import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.DynamicUpdate;
+
+import java.math.BigDecimal;
 
 
 @Getter
 @Setter
-
+@Entity
+@DynamicUpdate //UPDATE somente com as colunas alteradas
+@Table(name = "produtos")
 public class ProdutoModel {
 
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long idProduto;
+    @Column
     private String desPro;
+    @Column
     private Double qtdeProduto;
-    private Double valProduto;
+    @Column(precision = 15, scale = 2) //NUMERIC: valores monetarios exatos
+    private BigDecimal valProduto;
+    @Version //lock otimista: update concorrente do mesmo produto falha em vez de sobrescrever o estoque
+    private Long versao;
 }
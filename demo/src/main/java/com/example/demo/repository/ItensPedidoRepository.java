@@ -1,4 +1,50 @@
 package com.example.demo.repository;
 
-public interface ItensPedidoRepository {
+import com.example.demo.Dto.ItensPedidoDto;
+import com.example.demo.model.ItensPedidoModel;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface ItensPedidoRepository extends JpaRepository<ItensPedidoModel, Integer> {
+
+    /**
+     * Carrega os itens de vários pedidos em uma única consulta (IN), direto no DTO, para as páginas de pedidos
+     */
+    @Query("select new com.example.demo.Dto.ItensPedidoDto(i.id, i.qtdeItem, i.valUnidade, i.idProduto, i.nroPedido) "
+            + "from ItensPedidoModel i where i.nroPedido in :nroPedidos order by i.id")
+    List<ItensPedidoDto> findDtosByNroPedidoIn(@Param("nroPedidos") Collection<Long> nroPedidos);
+
+    /**
+     * Vários itens por ID em uma única consulta (IN), direto no DTO
+     */
+    @Query("select new com.example.demo.Dto.ItensPedidoDto(i.id, i.qtdeItem, i.valUnidade, i.idProduto, i.nroPedido) "
+            + "from ItensPedidoModel i where i.id in :ids")
+    List<ItensPedidoDto> findDtosByIdIn(@Param("ids") Collection<Integer> ids);
+
+    /**
+     * Keyset: busca a próxima página de itens depois do id informado, direto no DTO
+     */
+    @Query("select new com.example.demo.Dto.ItensPedidoDto(i.id, i.qtdeItem, i.valUnidade, i.idProduto, i.nroPedido) "
+            + "from ItensPedidoModel i where i.id > :id order by i.id")
+    List<ItensPedidoDto> findDtosAfter(@Param("id") Integer id, Limit limit);
+
+    /**
+     * Percorre todos os itens em um cursor JDBC, direto no DTO (deve ser consumido dentro de uma transação)
+     */
+    @Query("select new com.example.demo.Dto.ItensPedidoDto(i.id, i.qtdeItem, i.valUnidade, i.idProduto, i.nroPedido) "
+            + "from ItensPedidoModel i order by i.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<ItensPedidoDto> streamDtos();
 }
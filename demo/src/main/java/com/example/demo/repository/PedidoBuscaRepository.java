@@ -0,0 +1,19 @@
+package com.example.demo.repository;
+
+import com.example.demo.Dto.PedidoResumoDto;
+import com.example.demo.model.PedidoModel;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+/**
+ * Busca filtrada de pedidos com projeção (fragmento implementado em PedidoBuscaRepositoryImpl)
+ */
+public interface PedidoBuscaRepository {
+
+    /**
+     * Resumos dos pedidos que atendem o filtro, ordenados pelo nroPedido
+     */
+    List<PedidoResumoDto> findResumos(Specification<PedidoModel> filtro, Limit limit);
+}
@@ -0,0 +1,38 @@
+package com.example.demo.repository;
+
+import com.example.demo.Dto.PedidoResumoDto;
+import com.example.demo.model.PedidoModel;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+/**
+ * Seleciona só nroPedido e datPedido (select new via Criteria): nenhuma entidade é
+ * instanciada nem fica no contexto de persistência.
+ */
+class PedidoBuscaRepositoryImpl implements PedidoBuscaRepository {
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Override
+    public List<PedidoResumoDto> findResumos(Specification<PedidoModel> filtro, Limit limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<PedidoResumoDto> query = cb.createQuery(PedidoResumoDto.class);
+        Root<PedidoModel> root = query.from(PedidoModel.class);
+        query.select(cb.construct(PedidoResumoDto.class, root.get("nroPedido"), root.get("datPedido")))
+                .where(filtro.toPredicate(root, query, cb))
+                .orderBy(cb.asc(root.get("nroPedido")));
+        return entityManager.createQuery(query)
+                .setMaxResults(limit.max())
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultList();
+    }
+}
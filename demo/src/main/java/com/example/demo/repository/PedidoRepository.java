@@ -1,4 +1,84 @@
 package com.example.demo.repository;
 
-public interface PedidoRepository {
+import com.example.demo.Dto.PedidoDto;
+import com.example.demo.Dto.PedidoTotalDto;
+import com.example.demo.model.PedidoModel;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public interface PedidoRepository extends JpaRepository<PedidoModel, Long>, PedidoBuscaRepository {
+
+    /**
+     * Busca o pedido com os itens em uma única consulta (join fetch via entity graph)
+     */
+    @EntityGraph(attributePaths = "itensPedido")
+    Optional<PedidoModel> findWithItensPedidoByNroPedido(long nroPedido);
+
+    /**
+     * Incrementa a versão dos pedidos cujos itens foram alterados diretamente (api/itens)
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("update PedidoModel p set p.versao = p.versao + 1 where p.nroPedido in :nroPedidos")
+    int incrementarVersao(@Param("nroPedidos") Collection<Long> nroPedidos);
+
+    /**
+     * Incrementa a versão do pedido ao qual o item pertence
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("update PedidoModel p set p.versao = p.versao + 1 "
+            + "where p.nroPedido = (select i.nroPedido from ItensPedidoModel i where i.id = :id)")
+    int incrementarVersaoPorItem(@Param("id") Integer id);
+
+    /**
+     * Total do pedido calculado no banco em uma única consulta (vazio se o pedido não existe)
+     */
+    @Query("select new com.example.demo.Dto.PedidoTotalDto(p.nroPedido, count(i), sum(i.qtdeItem * i.valUnidade)) "
+            + "from PedidoModel p left join p.itensPedido i "
+            + "where p.nroPedido = :nroPedido group by p.nroPedido")
+    Optional<PedidoTotalDto> findTotalByNroPedido(@Param("nroPedido") long nroPedido);
+
+    /**
+     * Totais de vários pedidos em uma única consulta, ordenados pelo nroPedido
+     */
+    @Query("select new com.example.demo.Dto.PedidoTotalDto(p.nroPedido, count(i), sum(i.qtdeItem * i.valUnidade)) "
+            + "from PedidoModel p left join p.itensPedido i "
+            + "where p.nroPedido in :nroPedidos group by p.nroPedido order by p.nroPedido")
+    List<PedidoTotalDto> findTotalByNroPedidoIn(@Param("nroPedidos") Collection<Long> nroPedidos);
+
+    /**
+     * Keyset: busca a próxima página de pedidos depois do nroPedido informado, direto no DTO (sem os itens)
+     */
+    @Query("select new com.example.demo.Dto.PedidoDto(p.nroPedido, p.datPedido, coalesce(p.versao, 0)) "
+            + "from PedidoModel p where p.nroPedido > :nroPedido order by p.nroPedido")
+    List<PedidoDto> findDtosAfter(@Param("nroPedido") long nroPedido, Limit limit);
+
+    /**
+     * Vários pedidos por ID em uma única consulta (IN), direto no DTO (sem os itens)
+     */
+    @Query("select new com.example.demo.Dto.PedidoDto(p.nroPedido, p.datPedido, coalesce(p.versao, 0)) "
+            + "from PedidoModel p where p.nroPedido in :nroPedidos")
+    List<PedidoDto> findDtosByNroPedidoIn(@Param("nroPedidos") Collection<Long> nroPedidos);
+
+    /**
+     * Percorre todos os pedidos em um cursor JDBC, direto no DTO (deve ser consumido dentro de uma transação)
+     */
+    @Query("select new com.example.demo.Dto.PedidoDto(p.nroPedido, p.datPedido, coalesce(p.versao, 0)) "
+            + "from PedidoModel p order by p.nroPedido")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<PedidoDto> streamDtos();
 }
@@ -0,0 +1,54 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.ItensPedidoModel;
+import com.example.demo.model.PedidoModel;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+
+/**
+ * Filtros da busca de pedidos. Cada filtro corresponde a um índice (ver db/migration):
+ * data_pedido -> idx_pedidos_data_pedido, produto -> idx_itens_pedido_id_produto, cursor -> PK.
+ */
+public final class PedidoSpecifications {
+
+    private PedidoSpecifications() {
+    }
+
+    /**
+     * Keyset: pedidos depois do nroPedido informado
+     */
+    public static Specification<PedidoModel> depoisDe(long nroPedido) {
+        return (root, query, cb) -> cb.greaterThan(root.get("nroPedido"), nroPedido);
+    }
+
+    /**
+     * datPedido >= de (inclusivo)
+     */
+    public static Specification<PedidoModel> dataDe(LocalDateTime de) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("datPedido"), de);
+    }
+
+    /**
+     * datPedido < ate (exclusivo: intervalos consecutivos não se sobrepõem)
+     */
+    public static Specification<PedidoModel> dataAte(LocalDateTime ate) {
+        return (root, query, cb) -> cb.lessThan(root.get("datPedido"), ate);
+    }
+
+    /**
+     * Pedidos com pelo menos um item do produto (EXISTS, sem join que duplique o pedido)
+     */
+    public static Specification<PedidoModel> contemProduto(Long idProduto) {
+        return (root, query, cb) -> {
+            Subquery<Integer> itens = query.subquery(Integer.class);
+            Root<ItensPedidoModel> item = itens.from(ItensPedidoModel.class);
+            itens.select(item.get("id"))
+                    .where(cb.equal(item.get("idProduto"), idProduto),
+                            cb.equal(item.get("nroPedido"), root.get("nroPedido")));
+            return cb.exists(itens);
+        };
+    }
+}
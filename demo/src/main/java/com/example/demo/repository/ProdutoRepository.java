@@ -1,8 +1,75 @@
 package com.example.demo.repository;
 
+import com.example.demo.Dto.ProdutoDto;
 import com.example.demo.model.ProdutoModel;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
-public interface ProdutoRepository extends JpaRepository<ProdutoModel, Integer> {
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
-}
\ No newline at end of file
+public interface ProdutoRepository extends JpaRepository<ProdutoModel, Long> {
+
+    /**
+     * Reserva atômica de estoque: um único UPDATE condicional, sem SELECT prévio nem lock de leitura.
+     * Incrementa a versão para que um update otimista concorrente do produto detecte a alteração.
+     *
+     * @return 1 se reservou, 0 se o produto não existe ou o estoque é insuficiente
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("update ProdutoModel p set p.qtdeProduto = p.qtdeProduto - :qtde, p.versao = p.versao + 1 "
+            + "where p.idProduto = :idProduto and p.qtdeProduto >= :qtde")
+    int reservar(@Param("idProduto") Long idProduto, @Param("qtde") Double qtde);
+
+    /**
+     * Devolve ao estoque uma quantidade reservada, no mesmo UPDATE atômico da reserva
+     *
+     * @return 1 se devolveu, 0 se o produto não existe mais
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("update ProdutoModel p set p.qtdeProduto = p.qtdeProduto + :qtde, p.versao = p.versao + 1 "
+            + "where p.idProduto = :idProduto")
+    int liberar(@Param("idProduto") Long idProduto, @Param("qtde") Double qtde);
+
+    /**
+     * Produto por ID direto no DTO, lido do banco mesmo que a entidade esteja no contexto de persistência
+     * (estado após os UPDATEs de reserva)
+     */
+    @Query("select new com.example.demo.Dto.ProdutoDto(p.idProduto, p.desPro, p.qtdeProduto, p.valProduto, coalesce(p.versao, 0)) "
+            + "from ProdutoModel p where p.idProduto = :idProduto")
+    Optional<ProdutoDto> findDtoByIdProduto(@Param("idProduto") Long idProduto);
+
+    /**
+     * Keyset: busca a próxima página de produtos depois do idProduto informado, direto no DTO
+     * (select new: sem entidades no contexto de persistência nem snapshots de dirty checking)
+     */
+    @Query("select new com.example.demo.Dto.ProdutoDto(p.idProduto, p.desPro, p.qtdeProduto, p.valProduto, coalesce(p.versao, 0)) "
+            + "from ProdutoModel p where p.idProduto > :idProduto order by p.idProduto")
+    List<ProdutoDto> findDtosAfter(@Param("idProduto") Long idProduto, Limit limit);
+
+    /**
+     * Vários produtos por ID em uma única consulta (IN), direto no DTO
+     */
+    @Query("select new com.example.demo.Dto.ProdutoDto(p.idProduto, p.desPro, p.qtdeProduto, p.valProduto, coalesce(p.versao, 0)) "
+            + "from ProdutoModel p where p.idProduto in :ids")
+    List<ProdutoDto> findDtosByIdProdutoIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Percorre todos os produtos em um cursor JDBC, direto no DTO (deve ser consumido dentro de uma transação)
+     */
+    @Query("select new com.example.demo.Dto.ProdutoDto(p.idProduto, p.desPro, p.qtdeProduto, p.valProduto, coalesce(p.versao, 0)) "
+            + "from ProdutoModel p order by p.idProduto")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<ProdutoDto> streamDtos();
+}
@@ -0,0 +1,35 @@
+package com.example.demo.resource;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * GET condicional: ETag fraco (W/"versao") a partir da versão da entidade efetivamente carregada.
+ * Fraco porque o mesmo recurso sai em JSON, Smile ou CBOR (bytes diferentes, mesma versão); Vary: Accept
+ * separa as representações nos caches. Se o If-None-Match da requisição coincidir, responde 304 sem serializar o corpo.
+ */
+final class ConditionalGet {
+
+    private ConditionalGet() {
+    }
+
+    /**
+     * @param request requisição atual (If-None-Match) e resposta (ETag, Cache-Control, Vary)
+     * @param cacheControl valor do cabeçalho Cache-Control (enviado também no 304)
+     * @param body busca o corpo da resposta
+     * @param versao versão da entidade lida no corpo
+     * @return corpo, ou null quando a resposta é 304
+     */
+    static <T> T of(ServletWebRequest request, String cacheControl, Supplier<T> body, ToLongFunction<T> versao) {
+        request.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+        request.getResponse().addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        T entidade = body.get();
+        if (request.checkNotModified("W/\"" + versao.applyAsLong(entidade) + "\"")) {
+            return null;
+        }
+        return entidade;
+    }
+}
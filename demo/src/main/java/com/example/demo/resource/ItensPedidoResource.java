@@ -1,22 +1,35 @@
 package com.example.demo.resource;
 
 
+import com.example.demo.Dto.BatchResultDto;
 import com.example.demo.Dto.ItensPedidoDto;
+import com.example.demo.Dto.MultiGetDto;
 import com.example.demo.interfaces.IResource;
 import com.example.demo.service.ItensPedidoService;
+import com.example.demo.service.MergePatchSupport;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 @Slf4j
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET) //no perfil reactive as rotas sao do ReactiveConfig
 @RequestMapping(value = "api/itens")
 @Tag(name = "ItensPedido API", description = "API para gerenciamento de itens do pedido")
 public class ItensPedidoResource implements IResource<ItensPedidoDto, Integer> {
@@ -24,6 +37,9 @@ public class ItensPedidoResource implements IResource<ItensPedidoDto, Integer> {
     @Autowired
     ItensPedidoService itensPedidoService;
 
+    @Autowired
+    ObjectMapper objectMapper;
+
     /**
      * Método para criar um novo item do pedido
      *
@@ -43,11 +59,36 @@ public class ItensPedidoResource implements IResource<ItensPedidoDto, Integer> {
             @ApiResponse(responseCode = "500", description = "Erro ao criar o item do pedido")
     })
     public ItensPedidoDto create(@RequestBody ItensPedidoDto entity) {
-        log.info("ItensPedidoResource::create");
-        log.debug("Valores: {}", entity);
+        log.debug("ItensPedidoResource::create - Valores: {}", entity);
         return itensPedidoService.create(entity);
     }
 
+    /**
+     * Método para criar itens do pedido em lote, a partir de um array JSON ou de NDJSON (um objeto por linha).
+     * O corpo é lido em streaming e gravado em blocos de application.batch.chunk-size.
+     *
+     * @param body corpo da requisição
+     * @return Resumo da carga (registros, lotes e registros/s); 422 se um lote falhar, com o que já foi gravado
+     */
+    @PostMapping(value = "/batch",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE},
+            produces = {MediaType.APPLICATION_JSON_VALUE}
+    )
+    @Operation(summary = "Criação de itens do pedido em lote", description = "Endpoint para carga em lote de itens do pedido (array JSON ou NDJSON)", method = "POST")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Itens do pedido criados com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Parâmetros inválidos"),
+            @ApiResponse(responseCode = "422", description = "Lote falhou; registros indica quantos foram gravados e de onde retomar"),
+            @ApiResponse(responseCode = "500", description = "Erro ao criar os itens do pedido")
+    })
+    public ResponseEntity<BatchResultDto> createBatch(InputStream body) throws IOException {
+        log.debug("ItensPedidoResource::createBatch");
+        try (MappingIterator<ItensPedidoDto> entities = objectMapper.readerFor(ItensPedidoDto.class).readValues(body)) {
+            BatchResultDto resultado = itensPedidoService.create(entities);
+            return ResponseEntity.status(resultado.getErro() == null ? HttpStatus.OK : HttpStatus.UNPROCESSABLE_ENTITY).body(resultado);
+        }
+    }
+
     /**
      * Método para buscar um item do pedido baseado no ID informado
      *
@@ -56,7 +97,7 @@ public class ItensPedidoResource implements IResource<ItensPedidoDto, Integer> {
      */
     @Override
     @GetMapping(value = "/{id}",
-            produces = {MediaType.APPLICATION_JSON_VALUE}
+            produces = {MediaType.APPLICATION_JSON_VALUE, IResource.APPLICATION_SMILE_VALUE, MediaType.APPLICATION_CBOR_VALUE}
     )
     @Operation(summary = "Busca item do pedido pelo ID", description = "Busca um item específico do pedido baseado no ID informado", method = "GET")
     @ApiResponses(value = {
@@ -65,27 +106,85 @@ public class ItensPedidoResource implements IResource<ItensPedidoDto, Integer> {
             @ApiResponse(responseCode = "500", description = "Erro ao buscar o item do pedido")
     })
     public ItensPedidoDto get(@PathVariable Integer id) {
-        log.info("ItensPedidoResource::get");
-        log.debug("Valores: {}", id);
+        log.debug("ItensPedidoResource::get - Valores: {}", id);
         return itensPedidoService.read(id);
     }
 
     /**
-     * Método para buscar todos os itens do pedido
+     * Método para buscar uma página de itens do pedido (keyset pelo id)
      *
-     * @return Lista de DTOs dos itens do pedido
+     * @param after último id recebido na página anterior (vazio = primeira página)
+     * @param limit tamanho da página (máximo IService.MAX_PAGE_SIZE)
+     * @return Lista de DTOs da página
      */
     @Override
-    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE})
-    @Operation(summary = "Busca todos os itens do pedido", description = "Busca todos os itens do pedido cadastrados", method = "GET")
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, IResource.APPLICATION_SMILE_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    @Operation(summary = "Busca itens do pedido paginados", description = "Busca uma página de itens do pedido a partir do cursor informado", method = "GET")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Itens do pedido encontrados com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Parâmetros inválidos"),
             @ApiResponse(responseCode = "500", description = "Erro ao buscar os itens do pedido")
     })
-    public List<ItensPedidoDto> get() {
-        log.info("ItensPedidoResource::get");
-        log.debug("Valores: sem parâmetro");
-        return itensPedidoService.read();
+    public List<ItensPedidoDto> get(@RequestParam(required = false) Integer after, @RequestParam(defaultValue = "100") int limit) {
+        log.debug("ItensPedidoResource::get - Valores: {} e {}", after, limit);
+        return itensPedidoService.read(after, limit);
+    }
+
+    /**
+     * Método para buscar vários itens de pedido de uma vez (ex.: ?ids=1,2,3), com consultas IN em vez de uma por ID
+     *
+     * @param ids ids desejados (máximo de 10.000)
+     * @return Itens de pedido encontrados, na ordem dos IDs, e IDs não encontrados
+     */
+    @Override
+    @GetMapping(params = "ids", produces = {MediaType.APPLICATION_JSON_VALUE, IResource.APPLICATION_SMILE_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    @Operation(summary = "Busca itens de pedido por IDs", description = "Busca os itens de pedido dos IDs informados e lista os IDs inexistentes", method = "GET")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Consulta realizada com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Quantidade de IDs acima do limite"),
+            @ApiResponse(responseCode = "500", description = "Erro ao buscar os itens de pedido")
+    })
+    public MultiGetDto<ItensPedidoDto, Integer> get(@RequestParam List<Integer> ids) {
+        log.debug("ItensPedidoResource::get(ids) - Valores: {}", ids);
+        return itensPedidoService.readAll(ids);
+    }
+
+    /**
+     * Método para buscar vários itens de pedido de uma vez com os IDs no corpo (array JSON), para listas longas
+     *
+     * @param ids ids desejados (máximo de 10.000)
+     * @return Itens de pedido encontrados, na ordem dos IDs, e IDs não encontrados
+     */
+    @Override
+    @PostMapping(value = "/lookup",
+            consumes = {MediaType.APPLICATION_JSON_VALUE},
+            produces = {MediaType.APPLICATION_JSON_VALUE, IResource.APPLICATION_SMILE_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    @Operation(summary = "Busca itens de pedido por IDs (corpo)", description = "Busca os itens de pedido dos IDs enviados no corpo e lista os IDs inexistentes", method = "POST")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Consulta realizada com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Quantidade de IDs acima do limite"),
+            @ApiResponse(responseCode = "500", description = "Erro ao buscar os itens de pedido")
+    })
+    public MultiGetDto<ItensPedidoDto, Integer> lookup(@RequestBody List<Integer> ids) {
+        log.debug("ItensPedidoResource::lookup - Valores: {}", ids);
+        return itensPedidoService.readAll(ids);
+    }
+
+    /**
+     * Método para exportar todos os itens do pedido em streaming (array JSON)
+     *
+     * @return Corpo da resposta escrito à medida que os registros são lidos
+     */
+    @Override
+    @GetMapping(value = "/stream", produces = {MediaType.APPLICATION_JSON_VALUE})
+    @Operation(summary = "Exporta todos os itens do pedido", description = "Retorna todos os itens do pedido em streaming, sem carregar a lista em memória", method = "GET")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Itens do pedido exportados com sucesso"),
+            @ApiResponse(responseCode = "500", description = "Erro ao exportar os itens do pedido")
+    })
+    public StreamingResponseBody stream() {
+        log.debug("ItensPedidoResource::stream");
+        return JsonArrayStreaming.of(objectMapper, itensPedidoService::stream);
     }
 
     /**
@@ -108,11 +207,35 @@ public class ItensPedidoResource implements IResource<ItensPedidoDto, Integer> {
             @ApiResponse(responseCode = "500", description = "Erro ao atualizar o item do pedido")
     })
     public ItensPedidoDto update(@PathVariable Integer id, @RequestBody ItensPedidoDto entity) {
-        log.info("ItensPedidoResource::update");
-        log.debug("Valores: {} e {}", id, entity);
+        log.debug("ItensPedidoResource::update - Valores: {} e {}", id, entity);
         return itensPedidoService.update(id, entity);
     }
 
+    /**
+     * Método para atualizar parcialmente um item do pedido (JSON Merge Patch): somente os campos enviados são gravados
+     * Campos: "qtdeItem", "valUnidade", "idProduto" e "nroPedido"; null limpa o campo
+     *
+     * @param id ID do item do pedido a ser atualizado
+     * @param patch campos a alterar
+     * @return DTO do item do pedido atualizado
+     */
+    @Override
+    @PatchMapping(value = "/{id}",
+            consumes = {MergePatchSupport.MEDIA_TYPE, MediaType.APPLICATION_JSON_VALUE},
+            produces = {MediaType.APPLICATION_JSON_VALUE}
+    )
+    @Operation(summary = "Atualiza parte do item do pedido", description = "Atualiza somente os campos enviados do item do pedido (JSON Merge Patch)", method = "PATCH")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Item do pedido atualizado com sucesso"),
+            @ApiResponse(responseCode = "404", description = "Item do pedido não encontrado"),
+            @ApiResponse(responseCode = "400", description = "Parâmetros inválidos"),
+            @ApiResponse(responseCode = "500", description = "Erro ao atualizar o item do pedido")
+    })
+    public ItensPedidoDto patch(@PathVariable Integer id, @RequestBody ObjectNode patch) {
+        log.debug("ItensPedidoResource::patch - Valores: {} e {}", id, patch);
+        return itensPedidoService.patch(id, patch);
+    }
+
     /**
      * Método para deletar um item do pedido com base no ID informado
      *
@@ -127,8 +250,7 @@ public class ItensPedidoResource implements IResource<ItensPedidoDto, Integer> {
             @ApiResponse(responseCode = "500", description = "Erro ao deletar o item do pedido")
     })
     public void delete(@PathVariable Integer id) {
-        log.info("ItensPedidoResource::delete");
-        log.debug("Valores: {}", id);
+        log.debug("ItensPedidoResource::delete - Valores: {}", id);
         itensPedidoService.delete(id);
     }
 }
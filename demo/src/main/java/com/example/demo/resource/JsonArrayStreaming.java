@@ -0,0 +1,41 @@
+package com.example.demo.resource;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * Escreve um array JSON direto no corpo da resposta, um elemento por vez,
+ * à medida que os registros são entregues pela camada de serviço.
+ */
+final class JsonArrayStreaming {
+
+    private JsonArrayStreaming() {
+    }
+
+    /**
+     * @param objectMapper mapper usado para serializar cada elemento
+     * @param source recebe o consumer que escreve cada elemento (ex.: service::stream)
+     * @return corpo da resposta em streaming
+     */
+    static <T> StreamingResponseBody of(ObjectMapper objectMapper, Consumer<Consumer<T>> source) {
+        return outputStream -> {
+            try (JsonGenerator generator = objectMapper.createGenerator(outputStream)) {
+                generator.writeStartArray();
+                source.accept(element -> {
+                    try {
+                        generator.writeObject(element);
+                    } catch (IOException e) {
+                        // cliente desconectou: interrompe a leitura do cursor
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+            }
+        };
+    }
+}
@@ -2,22 +2,49 @@ package com.example.demo.resource;
 
 
 
+import com.example.demo.Dto.BatchResultDto;
+import com.example.demo.Dto.MultiGetDto;
 import com.example.demo.Dto.PedidoDto;
+import com.example.demo.Dto.PedidoResumoDto;
+import com.example.demo.Dto.PedidoTotalDto;
+import com.example.demo.Dto.SolicitacaoPedidoDto;
+import com.example.demo.exception.CustomHttpException;
 import com.example.demo.interfaces.IResource;
+import com.example.demo.service.FormatoExportacao;
+import com.example.demo.service.MergePatchSupport;
+import com.example.demo.service.PedidoFilaService;
 import com.example.demo.service.PedidoService;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Slf4j
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET) //no perfil reactive as rotas sao do ReactiveConfig
 @RequestMapping(value = "api/pedidos")
 @Tag(name = "Pedido API", description = "API para gerenciamento de pedidos")
 public class PedidoResource implements IResource<PedidoDto, Integer> {
@@ -25,6 +52,15 @@ public class PedidoResource implements IResource<PedidoDto, Integer> {
     @Autowired
     PedidoService pedidoService;
 
+    @Autowired
+    PedidoFilaService pedidoFilaService;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Value("${application.http.cache-control.pedidos:no-cache}")
+    String cacheControl;
+
     /**
      * Método para criar um novo pedido
      *
@@ -43,11 +79,84 @@ public class PedidoResource implements IResource<PedidoDto, Integer> {
             @ApiResponse(responseCode = "500", description = "Erro ao criar o pedido")
     })
     public PedidoDto create(@RequestBody PedidoDto entity) {
-        log.info("PedidoResource::create");
-        log.debug("Valores: {}", entity);
+        log.debug("PedidoResource::create - Valores: {}", entity);
         return pedidoService.create(entity);
     }
 
+    /**
+     * Método para criar um pedido de forma assíncrona (cabeçalho Prefer: respond-async).
+     * O pedido é validado e enfileirado; a gravação acontece em segundo plano.
+     *
+     * @param entity DTO do pedido a ser criado
+     * @return 202 com a situação da solicitação e o cabeçalho Location para consulta
+     */
+    @PostMapping(headers = "Prefer=respond-async",
+            consumes = {MediaType.APPLICATION_JSON_VALUE},
+            produces = {MediaType.APPLICATION_JSON_VALUE}
+    )
+    @Operation(summary = "Criação assíncrona de um pedido", description = "Enfileira o pedido e retorna 202 com a URL de acompanhamento (Location)", method = "POST")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Pedido aceito para processamento"),
+            @ApiResponse(responseCode = "400", description = "Parâmetros inválidos"),
+            @ApiResponse(responseCode = "429", description = "Fila de pedidos cheia"),
+            @ApiResponse(responseCode = "500", description = "Erro ao enfileirar o pedido")
+    })
+    public ResponseEntity<SolicitacaoPedidoDto> createAsync(@RequestBody PedidoDto entity) {
+        log.debug("PedidoResource::createAsync - Valores: {}", entity);
+        SolicitacaoPedidoDto solicitacao = pedidoFilaService.enfileirar(entity);
+        URI location = ServletUriComponentsBuilder.fromCurrentRequestUri()
+                .path("/solicitacoes/{id}")
+                .buildAndExpand(solicitacao.getId())
+                .toUri();
+        return ResponseEntity.accepted().location(location).body(solicitacao);
+    }
+
+    /**
+     * Método para consultar a situação de um pedido criado de forma assíncrona
+     *
+     * @param id identificador da solicitação
+     * @return Situação da solicitação (PENDENTE, CONCLUIDO com o nroPedido ou ERRO)
+     */
+    @GetMapping(value = "/solicitacoes/{id}",
+            produces = {MediaType.APPLICATION_JSON_VALUE}
+    )
+    @Operation(summary = "Situação de um pedido assíncrono", description = "Consulta a situação de um pedido enfileirado", method = "GET")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Solicitação encontrada"),
+            @ApiResponse(responseCode = "404", description = "Solicitação não encontrada ou expirada"),
+            @ApiResponse(responseCode = "500", description = "Erro ao consultar a solicitação")
+    })
+    public SolicitacaoPedidoDto status(@PathVariable String id) {
+        log.debug("PedidoResource::status - Valores: {}", id);
+        return pedidoFilaService.status(id);
+    }
+
+    /**
+     * Método para criar pedidos em lote, a partir de um array JSON ou de NDJSON (um objeto por linha).
+     * O corpo é lido em streaming e gravado em blocos de application.batch.chunk-size.
+     *
+     * @param body corpo da requisição
+     * @return Resumo da carga (registros, lotes e registros/s); 422 se um lote falhar, com o que já foi gravado
+     */
+    @PostMapping(value = "/batch",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE},
+            produces = {MediaType.APPLICATION_JSON_VALUE}
+    )
+    @Operation(summary = "Criação de pedidos em lote", description = "Endpoint para carga em lote de pedidos (array JSON ou NDJSON)", method = "POST")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Pedidos criados com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Parâmetros inválidos"),
+            @ApiResponse(responseCode = "422", description = "Lote falhou; registros indica quantos foram gravados e de onde retomar"),
+            @ApiResponse(responseCode = "500", description = "Erro ao criar os pedidos")
+    })
+    public ResponseEntity<BatchResultDto> createBatch(InputStream body) throws IOException {
+        log.debug("PedidoResource::createBatch");
+        try (MappingIterator<PedidoDto> entities = objectMapper.readerFor(PedidoDto.class).readValues(body)) {
+            BatchResultDto resultado = pedidoService.create(entities);
+            return ResponseEntity.status(resultado.getErro() == null ? HttpStatus.OK : HttpStatus.UNPROCESSABLE_ENTITY).body(resultado);
+        }
+    }
+
     /**
      * Método para buscar um pedido baseado no ID informado
      *
@@ -55,37 +164,207 @@ public class PedidoResource implements IResource<PedidoDto, Integer> {
      * @return DTO do pedido encontrado
      */
     @Override
+    public PedidoDto get(Integer id) {
+        log.debug("PedidoResource::get - Valores: {}", id);
+        return pedidoService.read(id);
+    }
+
+    /**
+     * Método para buscar um pedido baseado no ID informado, com GET condicional:
+     * ETag fraco = versão do pedido lido; If-None-Match igual responde 304 sem enviar o corpo
+     *
+     * @param id ID do pedido
+     * @param request requisição (If-None-Match) e resposta (ETag, Cache-Control, Vary)
+     * @return DTO do pedido encontrado (nulo no 304)
+     */
     @GetMapping(value = "/{id}",
-            produces = {MediaType.APPLICATION_JSON_VALUE}
+            produces = {MediaType.APPLICATION_JSON_VALUE, IResource.APPLICATION_SMILE_VALUE, MediaType.APPLICATION_CBOR_VALUE}
     )
-    @Operation(summary = "Busca pedido pelo ID", description = "Busca um pedido específico baseado no ID informado", method = "GET")
+    @Operation(summary = "Busca pedido pelo ID", description = "Busca um pedido específico baseado no ID informado (suporta If-None-Match)", method = "GET")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Pedido encontrado com sucesso"),
+            @ApiResponse(responseCode = "304", description = "Pedido não alterado desde o ETag informado"),
             @ApiResponse(responseCode = "404", description = "Pedido não encontrado"),
             @ApiResponse(responseCode = "500", description = "Erro ao buscar o pedido")
     })
-    public PedidoDto get(@PathVariable Integer id) {
-        log.info("PedidoResource::get");
-        log.debug("Valores: {}", id);
-        return pedidoService.read(id);
+    public PedidoDto get(@PathVariable Integer id, ServletWebRequest request) {
+        return ConditionalGet.of(request, cacheControl, () -> get(id), PedidoDto::getVersao);
     }
 
     /**
-     * Método para buscar todos os pedidos
+     * Método para buscar uma página de pedidos (keyset pelo nroPedido)
      *
-     * @return Lista de DTOs dos pedidos
+     * @param after último nroPedido recebido na página anterior (vazio = primeira página)
+     * @param limit tamanho da página (máximo IService.MAX_PAGE_SIZE)
+     * @return Lista de DTOs da página
      */
     @Override
-    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE})
-    @Operation(summary = "Busca todos os pedidos", description = "Busca todos os pedidos cadastrados", method = "GET")
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, IResource.APPLICATION_SMILE_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    @Operation(summary = "Busca pedidos paginados", description = "Busca uma página de pedidos a partir do cursor informado", method = "GET")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Pedidos encontrados com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Parâmetros inválidos"),
+            @ApiResponse(responseCode = "500", description = "Erro ao buscar os pedidos")
+    })
+    public List<PedidoDto> get(@RequestParam(required = false) Integer after, @RequestParam(defaultValue = "100") int limit) {
+        log.debug("PedidoResource::get - Valores: {} e {}", after, limit);
+        return pedidoService.read(after, limit);
+    }
+
+    /**
+     * Método para buscar vários pedidos de uma vez (ex.: ?ids=1,2,3), com consultas IN em vez de uma por ID
+     *
+     * @param ids nroPedidos desejados (máximo de 10.000)
+     * @return Pedidos encontrados, na ordem dos IDs, e IDs não encontrados
+     */
+    @Override
+    @GetMapping(params = "ids", produces = {MediaType.APPLICATION_JSON_VALUE, IResource.APPLICATION_SMILE_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    @Operation(summary = "Busca pedidos por IDs", description = "Busca os pedidos dos IDs informados e lista os IDs inexistentes", method = "GET")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Consulta realizada com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Quantidade de IDs acima do limite"),
+            @ApiResponse(responseCode = "500", description = "Erro ao buscar os pedidos")
+    })
+    public MultiGetDto<PedidoDto, Integer> get(@RequestParam List<Integer> ids) {
+        log.debug("PedidoResource::get(ids) - Valores: {}", ids);
+        return pedidoService.readAll(ids);
+    }
+
+    /**
+     * Método para buscar vários pedidos de uma vez com os IDs no corpo (array JSON), para listas longas
+     *
+     * @param ids nroPedidos desejados (máximo de 10.000)
+     * @return Pedidos encontrados, na ordem dos IDs, e IDs não encontrados
+     */
+    @Override
+    @PostMapping(value = "/lookup",
+            consumes = {MediaType.APPLICATION_JSON_VALUE},
+            produces = {MediaType.APPLICATION_JSON_VALUE, IResource.APPLICATION_SMILE_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    @Operation(summary = "Busca pedidos por IDs (corpo)", description = "Busca os pedidos dos IDs enviados no corpo e lista os IDs inexistentes", method = "POST")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Consulta realizada com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Quantidade de IDs acima do limite"),
             @ApiResponse(responseCode = "500", description = "Erro ao buscar os pedidos")
     })
-    public List<PedidoDto> get() {
-        log.info("PedidoResource::get");
-        log.debug("Valores: sem parâmetro");
-        return pedidoService.read();
+    public MultiGetDto<PedidoDto, Integer> lookup(@RequestBody List<Integer> ids) {
+        log.debug("PedidoResource::lookup - Valores: {}", ids);
+        return pedidoService.readAll(ids);
+    }
+
+    /**
+     * Método para buscar pedidos por período e/ou produto (resumo, sem itens)
+     *
+     * @param de data inicial, inclusiva (ISO, ex.: 2024-01-01T00:00:00)
+     * @param ate data final, exclusiva
+     * @param idProduto produto que deve constar nos itens do pedido
+     * @param after último nroPedido recebido na página anterior (vazio = primeira página)
+     * @param limit tamanho da página (máximo IService.MAX_PAGE_SIZE)
+     * @return Resumos dos pedidos encontrados
+     */
+    @GetMapping(value = "/busca",
+            produces = {MediaType.APPLICATION_JSON_VALUE, IResource.APPLICATION_SMILE_VALUE, MediaType.APPLICATION_CBOR_VALUE}
+    )
+    @Operation(summary = "Busca filtrada de pedidos", description = "Busca pedidos por período (de/ate) e/ou produto; ao menos um filtro é obrigatório", method = "GET")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Pedidos encontrados com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Parâmetros inválidos ou nenhum filtro informado"),
+            @ApiResponse(responseCode = "500", description = "Erro ao buscar os pedidos")
+    })
+    public List<PedidoResumoDto> buscar(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime de,
+                                        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime ate,
+                                        @RequestParam(required = false) Long idProduto,
+                                        @RequestParam(required = false) Integer after,
+                                        @RequestParam(defaultValue = "100") int limit) {
+        log.debug("PedidoResource::buscar - Valores: {}, {}, {}, {} e {}", de, ate, idProduto, after, limit);
+        return pedidoService.buscar(de, ate, idProduto, after, limit);
+    }
+
+    /**
+     * Método para exportar todos os pedidos em streaming (array JSON)
+     *
+     * @return Corpo da resposta escrito à medida que os registros são lidos
+     */
+    @Override
+    @GetMapping(value = "/stream", produces = {MediaType.APPLICATION_JSON_VALUE})
+    @Operation(summary = "Exporta todos os pedidos", description = "Retorna todos os pedidos em streaming, sem carregar a lista em memória", method = "GET")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Pedidos exportados com sucesso"),
+            @ApiResponse(responseCode = "500", description = "Erro ao exportar os pedidos")
+    })
+    public StreamingResponseBody stream() {
+        log.debug("PedidoResource::stream");
+        return JsonArrayStreaming.of(objectMapper, pedidoService::stream);
+    }
+
+    /**
+     * Método para exportar os pedidos de um período em CSV ou NDJSON, com COPY do PostgreSQL direto para a resposta
+     * (sem entidades nem DTOs, memória constante; se o cliente desconectar, o COPY é cancelado)
+     *
+     * @param from data inicial, inclusiva (ISO, ex.: 2024-01-01T00:00:00; vazio = sem limite)
+     * @param to data final, exclusiva (vazio = sem limite)
+     * @param format csv (uma linha por item) ou ndjson (um pedido por linha)
+     * @return Corpo da resposta escrito à medida que o banco envia os dados
+     */
+    @GetMapping(value = "/export")
+    @Operation(summary = "Exporta pedidos por período", description = "Exporta os pedidos do período em CSV ou NDJSON via COPY (PostgreSQL)", method = "GET")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Pedidos exportados com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Formato ou período inválido"),
+            @ApiResponse(responseCode = "500", description = "Erro ao exportar os pedidos")
+    })
+    public ResponseEntity<StreamingResponseBody> exportar(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                          @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                                          @RequestParam(defaultValue = "csv") String format) {
+        log.debug("PedidoResource::exportar - Valores: {}, {} e {}", from, to, format);
+        FormatoExportacao formato = FormatoExportacao.of(format);
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new CustomHttpException("A data inicial deve ser anterior à data final");
+        }
+        return ResponseEntity.ok()
+                .contentType(formato.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("pedidos." + formato.getExtensao()).build().toString())
+                .body(outputStream -> pedidoService.exportar(from, to, formato, outputStream));
+    }
+
+    /**
+     * Método para calcular o total de um pedido (soma de quantidade x valor unitário dos itens)
+     *
+     * @param id ID do pedido
+     * @return Total do pedido
+     */
+    @GetMapping(value = "/{id}/total",
+            produces = {MediaType.APPLICATION_JSON_VALUE}
+    )
+    @Operation(summary = "Total do pedido", description = "Calcula o total do pedido no banco, em uma única consulta", method = "GET")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Total calculado com sucesso"),
+            @ApiResponse(responseCode = "404", description = "Pedido não encontrado"),
+            @ApiResponse(responseCode = "500", description = "Erro ao calcular o total do pedido")
+    })
+    public PedidoTotalDto total(@PathVariable Integer id) {
+        log.debug("PedidoResource::total - Valores: {}", id);
+        return pedidoService.total(id);
+    }
+
+    /**
+     * Método para calcular o total de vários pedidos
+     *
+     * @param ids IDs dos pedidos (ex.: ?ids=1,2,3)
+     * @return Totais dos pedidos encontrados, ordenados pelo nroPedido
+     */
+    @GetMapping(value = "/totais",
+            produces = {MediaType.APPLICATION_JSON_VALUE}
+    )
+    @Operation(summary = "Totais de vários pedidos", description = "Calcula o total de cada pedido informado em uma única consulta; IDs inexistentes são omitidos", method = "GET")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Totais calculados com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Parâmetros inválidos"),
+            @ApiResponse(responseCode = "500", description = "Erro ao calcular os totais")
+    })
+    public List<PedidoTotalDto> total(@RequestParam List<Integer> ids) {
+        log.debug("PedidoResource::total(ids) - Valores: {}", ids);
+        return pedidoService.total(ids);
     }
 
     /**
@@ -108,11 +387,35 @@ public class PedidoResource implements IResource<PedidoDto, Integer> {
             @ApiResponse(responseCode = "500", description = "Erro ao atualizar o pedido")
     })
     public PedidoDto update(@PathVariable Integer id, @RequestBody PedidoDto entity) {
-        log.info("PedidoResource::update");
-        log.debug("Valores: {} e {}", id, entity);
+        log.debug("PedidoResource::update - Valores: {} e {}", id, entity);
         return pedidoService.update(id, entity);
     }
 
+    /**
+     * Método para atualizar parcialmente um pedido (JSON Merge Patch): somente os campos enviados são gravados
+     * Campos: "datPedido" (não aceita null) e "itensPedido" (substitui todos os itens; null remove todos)
+     *
+     * @param id ID do pedido a ser atualizado
+     * @param patch campos a alterar
+     * @return DTO do pedido atualizado
+     */
+    @Override
+    @PatchMapping(value = "/{id}",
+            consumes = {MergePatchSupport.MEDIA_TYPE, MediaType.APPLICATION_JSON_VALUE},
+            produces = {MediaType.APPLICATION_JSON_VALUE}
+    )
+    @Operation(summary = "Atualiza parte do pedido", description = "Atualiza somente os campos enviados do pedido (JSON Merge Patch)", method = "PATCH")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Pedido atualizado com sucesso"),
+            @ApiResponse(responseCode = "404", description = "Pedido não encontrado"),
+            @ApiResponse(responseCode = "400", description = "Parâmetros inválidos"),
+            @ApiResponse(responseCode = "500", description = "Erro ao atualizar o pedido")
+    })
+    public PedidoDto patch(@PathVariable Integer id, @RequestBody ObjectNode patch) {
+        log.debug("PedidoResource::patch - Valores: {} e {}", id, patch);
+        return pedidoService.patch(id, patch);
+    }
+
     /**
      * Método para deletar um pedido com base no ID informado
      *
@@ -127,8 +430,7 @@ public class PedidoResource implements IResource<PedidoDto, Integer> {
             @ApiResponse(responseCode = "500", description = "Erro ao deletar o pedido")
     })
     public void delete(@PathVariable Integer id) {
-        log.info("PedidoResource::delete");
-        log.debug("Valores: {}", id);
+        log.debug("PedidoResource::delete - Valores: {}", id);
         pedidoService.delete(id);
     }
 }
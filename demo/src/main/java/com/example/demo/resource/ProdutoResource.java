@@ -1,21 +1,32 @@
 package com.example.demo.resource;
 
 
+import com.example.demo.Dto.ImportResultDto;
+import com.example.demo.Dto.MultiGetDto;
 import com.example.demo.Dto.ProdutoDto;
 import com.example.demo.interfaces.IResource;
+import com.example.demo.service.MergePatchSupport;
 import com.example.demo.service.ProdutoService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET) //no perfil reactive as rotas sao do ReactiveConfig
 @Slf4j
 @RequestMapping(value = "api/produtos")
 @Tag(name = "Produto API", description = "API para gerenciamento de produtos")
@@ -24,6 +35,12 @@ public class ProdutoResource implements IResource<ProdutoDto, Integer> {
     @Autowired
     ProdutoService produtoService;
 
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Value("${application.http.cache-control.produtos:no-cache}")
+    String cacheControl;
+
     /**
      * Método para criar um novo produto
      *
@@ -42,11 +59,34 @@ public class ProdutoResource implements IResource<ProdutoDto, Integer> {
             @ApiResponse(responseCode = "500", description = "Erro ao criar o produto")
     })
     public ProdutoDto create(@RequestBody ProdutoDto entity) {
-        log.info("ProdutoResource::create");
-        log.debug("Valores: {}", entity);
+        log.debug("ProdutoResource::create - Valores: {}", entity);
         return produtoService.create(entity);
     }
 
+    /**
+     * Método para importar o catálogo de um arquivo CSV (COPY para staging + upsert em uma transação).
+     * Primeira linha: cabeçalho; colunas idProduto,desPro,qtdeProduto,valProduto (idProduto vazio = produto novo).
+     * O corpo é lido em streaming, sem carregar o arquivo em memória.
+     *
+     * @param body conteúdo CSV
+     * @return Resumo da importação (inseridos, atualizados, rejeitados com motivo e registros/s)
+     */
+    @PostMapping(value = "/import",
+            consumes = {"text/csv"},
+            produces = {MediaType.APPLICATION_JSON_VALUE}
+    )
+    @Operation(summary = "Importação do catálogo", description = "Importa produtos de um CSV via COPY (PostgreSQL), inserindo ou atualizando pelo idProduto", method = "POST")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Importação concluída (linhas inválidas listadas no resumo)"),
+            @ApiResponse(responseCode = "422", description = "CSV malformado (nada é gravado)"),
+            @ApiResponse(responseCode = "400", description = "Falha ao ler o corpo da requisição (nada é gravado)"),
+            @ApiResponse(responseCode = "500", description = "Erro ao importar os produtos")
+    })
+    public ImportResultDto importar(InputStream body) {
+        log.debug("ProdutoResource::importar");
+        return produtoService.importar(body);
+    }
+
     /**
      * Método para buscar um produto baseado no ID informado
      *
@@ -54,44 +94,116 @@ public class ProdutoResource implements IResource<ProdutoDto, Integer> {
      * @return DTO do produto encontrado
      */
     @Override
+    public ProdutoDto get(Integer id) {
+        log.debug("ProdutoResource::get - Valores: {}", id);
+        return produtoService.read(id);
+    }
+
+    /**
+     * Método para buscar um produto baseado no ID informado, com GET condicional:
+     * ETag fraco = versão do produto lido; If-None-Match igual responde 304 sem enviar o corpo
+     *
+     * @param id ID do produto
+     * @param request requisição (If-None-Match) e resposta (ETag, Cache-Control, Vary)
+     * @return DTO do produto encontrado (nulo no 304)
+     */
     @GetMapping(value = "/{id}",
-            produces = {MediaType.APPLICATION_JSON_VALUE}
+            produces = {MediaType.APPLICATION_JSON_VALUE, IResource.APPLICATION_SMILE_VALUE, MediaType.APPLICATION_CBOR_VALUE}
     )
-    @Operation(summary = "Busca produto pelo ID", description = "Busca um produto específico baseado no ID informado", method = "GET")
+    @Operation(summary = "Busca produto pelo ID", description = "Busca um produto específico baseado no ID informado (suporta If-None-Match)", method = "GET")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Produto encontrado com sucesso"),
+            @ApiResponse(responseCode = "304", description = "Produto não alterado desde o ETag informado"),
             @ApiResponse(responseCode = "404", description = "Produto não encontrado"),
             @ApiResponse(responseCode = "500", description = "Erro ao buscar o produto")
     })
-    public ProdutoDto get(@PathVariable Integer id) {
-        log.info("ProdutoResource::get");
-        log.debug("Valores: {}", id);
-        return produtoService.read(id);
+    public ProdutoDto get(@PathVariable Integer id, ServletWebRequest request) {
+        return ConditionalGet.of(request, cacheControl, () -> get(id), ProdutoDto::getVersao);
     }
 
     /**
-     * Método para buscar todos os produtos
+     * Método para buscar uma página de produtos (keyset pelo idProduto)
      *
-     * @return Lista de DTOs dos produtos
+     * @param after último idProduto recebido na página anterior (vazio = primeira página)
+     * @param limit tamanho da página (máximo IService.MAX_PAGE_SIZE)
+     * @return Lista de DTOs da página
      */
     @Override
-    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE})
-    @Operation(summary = "Busca todos os produtos", description = "Busca todos os produtos cadastrados", method = "GET")
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, IResource.APPLICATION_SMILE_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    @Operation(summary = "Busca produtos paginados", description = "Busca uma página de produtos a partir do cursor informado", method = "GET")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Produtos encontrados com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Parâmetros inválidos"),
+            @ApiResponse(responseCode = "500", description = "Erro ao buscar os produtos")
+    })
+    public List<ProdutoDto> get(@RequestParam(required = false) Integer after, @RequestParam(defaultValue = "100") int limit) {
+        log.debug("ProdutoResource::get - Valores: {} e {}", after, limit);
+        return produtoService.read(after, limit);
+    }
+
+    /**
+     * Método para buscar vários produtos de uma vez (ex.: ?ids=1,2,3), com consultas IN em vez de uma por ID
+     *
+     * @param ids idProdutos desejados (máximo de 10.000)
+     * @return Produtos encontrados, na ordem dos IDs, e IDs não encontrados
+     */
+    @Override
+    @GetMapping(params = "ids", produces = {MediaType.APPLICATION_JSON_VALUE, IResource.APPLICATION_SMILE_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    @Operation(summary = "Busca produtos por IDs", description = "Busca os produtos dos IDs informados e lista os IDs inexistentes", method = "GET")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Consulta realizada com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Quantidade de IDs acima do limite"),
             @ApiResponse(responseCode = "500", description = "Erro ao buscar os produtos")
     })
-    public List<ProdutoDto> get() {
-        log.info("ProdutoResource::get");
-        log.debug("Valores: sem parâmetro");
-        return produtoService.read();
+    public MultiGetDto<ProdutoDto, Integer> get(@RequestParam List<Integer> ids) {
+        log.debug("ProdutoResource::get(ids) - Valores: {}", ids);
+        return produtoService.readAll(ids);
+    }
+
+    /**
+     * Método para buscar vários produtos de uma vez com os IDs no corpo (array JSON), para listas longas
+     *
+     * @param ids idProdutos desejados (máximo de 10.000)
+     * @return Produtos encontrados, na ordem dos IDs, e IDs não encontrados
+     */
+    @Override
+    @PostMapping(value = "/lookup",
+            consumes = {MediaType.APPLICATION_JSON_VALUE},
+            produces = {MediaType.APPLICATION_JSON_VALUE, IResource.APPLICATION_SMILE_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    @Operation(summary = "Busca produtos por IDs (corpo)", description = "Busca os produtos dos IDs enviados no corpo e lista os IDs inexistentes", method = "POST")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Consulta realizada com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Quantidade de IDs acima do limite"),
+            @ApiResponse(responseCode = "500", description = "Erro ao buscar os produtos")
+    })
+    public MultiGetDto<ProdutoDto, Integer> lookup(@RequestBody List<Integer> ids) {
+        log.debug("ProdutoResource::lookup - Valores: {}", ids);
+        return produtoService.readAll(ids);
+    }
+
+    /**
+     * Método para exportar todos os produtos em streaming (array JSON)
+     *
+     * @return Corpo da resposta escrito à medida que os registros são lidos
+     */
+    @Override
+    @GetMapping(value = "/stream", produces = {MediaType.APPLICATION_JSON_VALUE})
+    @Operation(summary = "Exporta todos os produtos", description = "Retorna todos os produtos em streaming, sem carregar a lista em memória", method = "GET")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Produtos exportados com sucesso"),
+            @ApiResponse(responseCode = "500", description = "Erro ao exportar os produtos")
+    })
+    public StreamingResponseBody stream() {
+        log.debug("ProdutoResource::stream");
+        return JsonArrayStreaming.of(objectMapper, produtoService::stream);
     }
 
     /**
      * Método para atualizar um produto com base no ID informado
+     * O corpo deve trazer a versão lida (campo versao); se o produto mudou desde então, responde 409
      *
      * @param id ID do produto a ser atualizado
-     * @param entity DTO do produto com as atualizações
+     * @param entity DTO do produto com as atualizações e a versão lida
      * @return DTO do produto atualizado
      */
     @Override
@@ -103,15 +215,40 @@ public class ProdutoResource implements IResource<ProdutoDto, Integer> {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Produto atualizado com sucesso"),
             @ApiResponse(responseCode = "404", description = "Produto não encontrado"),
-            @ApiResponse(responseCode = "400", description = "Parâmetros inválidos"),
+            @ApiResponse(responseCode = "400", description = "Parâmetros inválidos ou versão ausente"),
+            @ApiResponse(responseCode = "409", description = "Produto alterado depois da versão informada"),
             @ApiResponse(responseCode = "500", description = "Erro ao atualizar o produto")
     })
     public ProdutoDto update(@PathVariable Integer id, @RequestBody ProdutoDto entity) {
-        log.info("ProdutoResource::update");
-        log.debug("Valores: {} e {}", id, entity);
+        log.debug("ProdutoResource::update - Valores: {} e {}", id, entity);
         return produtoService.update(id, entity);
     }
 
+    /**
+     * Método para atualizar parcialmente um produto (JSON Merge Patch): somente os campos enviados são gravados
+     * Campos: "desPro" e "valProduto"; null limpa o campo (qtdeProduto só pelo PUT, com versão)
+     *
+     * @param id ID do produto a ser atualizado
+     * @param patch campos a alterar
+     * @return DTO do produto atualizado
+     */
+    @Override
+    @PatchMapping(value = "/{id}",
+            consumes = {MergePatchSupport.MEDIA_TYPE, MediaType.APPLICATION_JSON_VALUE},
+            produces = {MediaType.APPLICATION_JSON_VALUE}
+    )
+    @Operation(summary = "Atualiza parte do produto", description = "Atualiza somente os campos enviados do produto (JSON Merge Patch)", method = "PATCH")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Produto atualizado com sucesso"),
+            @ApiResponse(responseCode = "404", description = "Produto não encontrado"),
+            @ApiResponse(responseCode = "400", description = "Parâmetros inválidos"),
+            @ApiResponse(responseCode = "500", description = "Erro ao atualizar o produto")
+    })
+    public ProdutoDto patch(@PathVariable Integer id, @RequestBody ObjectNode patch) {
+        log.debug("ProdutoResource::patch - Valores: {} e {}", id, patch);
+        return produtoService.patch(id, patch);
+    }
+
     /**
      * Método para deletar um produto com base no ID informado
      *
@@ -126,8 +263,7 @@ public class ProdutoResource implements IResource<ProdutoDto, Integer> {
             @ApiResponse(responseCode = "500", description = "Erro ao deletar o produto")
     })
     public void delete(@PathVariable Integer id) {
-        log.info("ProdutoResource::delete");
-        log.debug("Valores: {}", id);
+        log.debug("ProdutoResource::delete - Valores: {}", id);
         produtoService.delete(id);
     }
 }
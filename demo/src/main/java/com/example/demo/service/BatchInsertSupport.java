@@ -0,0 +1,83 @@
+package com.example.demo.service;
+
+
+import com.example.demo.Dto.BatchResultDto;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Grava registros em lote: lê a origem em blocos de chunk-size, persiste cada bloco
+ * em uma transação própria (flush + clear ao final) e deixa o Hibernate agrupar os
+ * inserts via hibernate.jdbc.batch_size. Lotes já commitados permanecem gravados
+ * se um lote posterior falhar: a carga para e o resumo informa quantos registros foram gravados.
+ */
+@Component
+@Slf4j
+public class BatchInsertSupport {
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Value("${application.batch.chunk-size:1000}")
+    int chunkSize;
+
+    @Value("${application.batch.target-per-second:5000}")
+    double targetPerSecond;
+
+    /**
+     * @param source origem dos DTOs (pode ser lida em streaming)
+     * @param toModel conversão de DTO para entidade
+     * @return resumo da carga; com erro preenchido se um lote (leitura ou gravação) falhou
+     */
+    public <D> BatchResultDto insert(Iterator<D> source, Function<D, ?> toModel) {
+        long inicio = System.nanoTime();
+        long registros = 0;
+        long lotes = 0;
+        String erro = null;
+        List<D> lote = new ArrayList<>(chunkSize);
+        try {
+            while (source.hasNext()) {
+                lote.add(source.next());
+                if (lote.size() == chunkSize || !source.hasNext()) {
+                    persist(lote, toModel);
+                    registros += lote.size();
+                    lotes++;
+                    lote.clear();
+                }
+            }
+        } catch (RuntimeException e) {
+            erro = "Lote " + (lotes + 1) + " não gravado: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+            log.warn("BatchInsertSupport::insert interrompido após {} registros gravados: {}", registros, erro);
+        }
+        long tempoMs = (System.nanoTime() - inicio) / 1_000_000;
+        double porSegundo = tempoMs == 0 ? registros : registros * 1000.0 / tempoMs;
+        log.info("BatchInsertSupport::insert {} registros em {} lotes, {} ms ({} registros/s)", registros, lotes, tempoMs, (long) porSegundo);
+        if (registros >= chunkSize && porSegundo < targetPerSecond) {
+            log.warn("Carga em lote abaixo da meta: {} registros/s (meta {})", (long) porSegundo, (long) targetPerSecond);
+        }
+        return new BatchResultDto(registros, lotes, tempoMs, porSegundo, erro);
+    }
+
+    private <D> void persist(List<D> lote, Function<D, ?> toModel) {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (D dto : lote) {
+                entityManager.persist(toModel.apply(dto));
+            }
+            entityManager.flush();
+            entityManager.clear();
+        });
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.demo.service;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.BiConsumer;
+
+/**
+ * Diferença de quantidade por produto entre os itens atuais e os novos de um pedido:
+ * positiva = reservar, negativa = devolver ao estoque. Percorrida em ordem crescente de idProduto,
+ * para que transações concorrentes bloqueiem as linhas de produto sempre na mesma ordem (sem deadlock).
+ */
+public final class DiferencaEstoque {
+
+    private final Map<Long, Double> porProduto = new TreeMap<>();
+
+    /**
+     * Item novo (ou estado novo do item); itens sem produto ou quantidade são ignorados
+     */
+    public DiferencaEstoque adicionar(Long idProduto, Integer qtdeItem) {
+        return somar(idProduto, qtdeItem, 1);
+    }
+
+    /**
+     * Item atual que sai (ou estado anterior do item)
+     */
+    public DiferencaEstoque remover(Long idProduto, Integer qtdeItem) {
+        return somar(idProduto, qtdeItem, -1);
+    }
+
+    /**
+     * @param reservar recebe idProduto e quantidade a reservar
+     * @param liberar recebe idProduto e quantidade a devolver
+     */
+    public void aplicar(BiConsumer<Long, Double> reservar, BiConsumer<Long, Double> liberar) {
+        porProduto.forEach((idProduto, qtde) -> {
+            if (qtde > 0) {
+                reservar.accept(idProduto, qtde);
+            } else if (qtde < 0) {
+                liberar.accept(idProduto, -qtde);
+            }
+        });
+    }
+
+    /**
+     * Produtos com quantidade a reservar (positiva) ou devolver (negativa), em ordem crescente de idProduto
+     */
+    public Map<Long, Double> porProduto() {
+        return porProduto;
+    }
+
+    private DiferencaEstoque somar(Long idProduto, Integer qtdeItem, int sinal) {
+        if (idProduto != null && qtdeItem != null) {
+            porProduto.merge(idProduto, (double) sinal * qtdeItem, Double::sum);
+        }
+        return this;
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.demo.service;
+
+import com.example.demo.exception.CustomHttpException;
+import org.springframework.http.MediaType;
+
+import java.util.Locale;
+
+/**
+ * Formatos da exportação de pedidos (GET api/pedidos/export?format=)
+ */
+public enum FormatoExportacao {
+
+    /**
+     * Uma linha por item (pedidos sem itens saem com as colunas do item vazias), com cabeçalho
+     */
+    CSV(new MediaType("text", "csv"), "csv"),
+
+    /**
+     * Um pedido por linha, no formato do PedidoDto (itensPedido como array)
+     */
+    NDJSON(MediaType.APPLICATION_NDJSON, "ndjson");
+
+    private final MediaType mediaType;
+
+    private final String extensao;
+
+    FormatoExportacao(MediaType mediaType, String extensao) {
+        this.mediaType = mediaType;
+        this.extensao = extensao;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    public String getExtensao() {
+        return extensao;
+    }
+
+    public static FormatoExportacao of(String formato) {
+        try {
+            return valueOf(formato.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new CustomHttpException("Formato de exportação inválido: " + formato + " (use csv ou ndjson)");
+        }
+    }
+}
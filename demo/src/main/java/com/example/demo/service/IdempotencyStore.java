@@ -0,0 +1,43 @@
+package com.example.demo.service;
+
+import com.example.demo.exception.ConflictException;
+import com.example.demo.exception.UnprocessableEntityException;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Chaves de idempotência (cabeçalho Idempotency-Key) e as respostas já produzidas para elas.
+ * Implementações: MemoryIdempotencyStore (padrão) e JdbcIdempotencyStore (application.idempotency.store=jdbc).
+ */
+public interface IdempotencyStore {
+
+    /**
+     * Resposta gravada para uma chave (somente respostas 2xx são guardadas)
+     */
+    record Resposta(int status, String contentType, String location, byte[] corpo) {
+    }
+
+    /**
+     * Reserva a chave para a requisição atual. Se outra requisição com a mesma chave estiver
+     * em andamento, espera ela terminar (até espera) em vez de processar de novo.
+     *
+     * @param chave chave de idempotência
+     * @param hashCorpo hash do corpo da requisição (a mesma chave com outro corpo é rejeitada)
+     * @param espera tempo máximo de espera pela requisição em andamento
+     * @return vazio se a chave foi reservada (processar a requisição), ou a resposta já gravada
+     * @throws UnprocessableEntityException se a chave já foi usada com outro corpo
+     * @throws ConflictException se a requisição em andamento não terminou dentro da espera
+     */
+    Optional<Resposta> reservar(String chave, String hashCorpo, Duration espera);
+
+    /**
+     * Grava a resposta da chave reservada e libera quem estiver esperando por ela
+     */
+    void concluir(String chave, Resposta resposta);
+
+    /**
+     * Descarta a reserva (requisição falhou): a próxima tentativa com a chave processa de novo
+     */
+    void liberar(String chave);
+}
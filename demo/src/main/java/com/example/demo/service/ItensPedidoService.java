@@ -1,14 +1,36 @@
 package com.example.demo.service;
 
 
+import com.example.demo.Dto.BatchResultDto;
 import com.example.demo.Dto.ItensPedidoDto;
+import com.example.demo.Dto.MultiGetDto;
 import com.example.demo.Dto.PedidoDto;
+import com.example.demo.config.MetricsConfig;
+import com.example.demo.exception.NotFoundException;
+import com.example.demo.exception.UnprocessableEntityException;
 import com.example.demo.interfaces.IService;
+import com.example.demo.mapper.ItensPedidoMapper;
+import com.example.demo.model.ItensPedidoModel;
+import com.example.demo.model.PedidoModel;
+import com.example.demo.repository.ItensPedidoRepository;
+import com.example.demo.repository.PedidoRepository;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Serviço para gerenciamento de itens do pedido. Implementa as operações de
@@ -16,21 +38,61 @@ import java.util.List;
  */
 @Service
 @Slf4j
+@Timed(value = MetricsConfig.SERVICE_TIMER, histogram = true)
 public class ItensPedidoService implements IService<ItensPedidoDto, Integer> {
 
+    private static final Set<String> CAMPOS_PATCH = Set.of("qtdeItem", "valUnidade", "idProduto", "nroPedido");
+
+    @Autowired
+    ItensPedidoRepository itensPedidoRepository;
+
+    @Autowired
+    PedidoRepository pedidoRepository;
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Autowired
+    BatchInsertSupport batchInsertSupport;
+
+    @Autowired
+    ItensPedidoMapper itensPedidoMapper;
+
+    @Autowired
+    MergePatchSupport mergePatchSupport;
+
+    @Autowired
+    ProdutoService produtoService;
+
     /**
-     * Cria um novo item no pedido.
+     * Cria um novo item no pedido, reservando o estoque do produto na mesma transação.
      *
      * @param entity DTO do item de pedido a ser criado
      * @return DTO do item de pedido criado
+     * @throws com.example.demo.exception.ConflictException se o produto não tiver estoque suficiente
+     * @throws UnprocessableEntityException se o pedido informado não existir
      */
     @Override
     @Transactional(rollbackFor = Throwable.class)
     public ItensPedidoDto create(ItensPedidoDto entity) {
-        log.info("ItensPedidoService::create");
-        log.debug("Valores: {}", entity);
-        // Implementação do método de criação
-        return null;
+        log.debug("ItensPedidoService::create - Valores: {}", entity);
+        validarPedido(entity.getNroPedido());
+        produtoService.ajustarEstoque(new DiferencaEstoque().adicionar(entity.getIdProduto(), entity.getQtdeItem()));
+        ItensPedidoDto item = itensPedidoMapper.toDto(itensPedidoRepository.save(toModel(entity)));
+        alterouPedidos(entity.getNroPedido());
+        return item;
+    }
+
+    /**
+     * Cria itens de pedido em lote. A origem é consumida em blocos de application.batch.chunk-size,
+     * cada bloco em uma transação própria com inserts agrupados via JDBC batch.
+     *
+     * @param entities origem dos DTOs (lida em streaming)
+     * @return Resumo da carga
+     */
+    public BatchResultDto create(Iterator<ItensPedidoDto> entities) {
+        log.debug("ItensPedidoService::create(batch)");
+        return batchInsertSupport.insert(entities, this::toModel);
     }
 
     /**
@@ -42,28 +104,56 @@ public class ItensPedidoService implements IService<ItensPedidoDto, Integer> {
     @Override
     @Transactional(readOnly = true)
     public ItensPedidoDto read(Integer id) {
-        log.info("ItensPedidoService::read(id)");
-        log.debug("Valores: {}", id);
-        // Implementação do método de leitura por ID
-        return null;
+        log.debug("ItensPedidoService::read(id) - Valores: {}", id);
+        return itensPedidoMapper.toDto(findById(id));
+    }
+
+    /**
+     * Busca vários itens de pedido por ID com consultas IN em blocos (MultiGet).
+     *
+     * @param ids IDs dos itens de pedido
+     * @return itens encontrados, na ordem dos IDs, e IDs inexistentes
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public MultiGetDto<ItensPedidoDto, Integer> readAll(List<Integer> ids) {
+        log.debug("ItensPedidoService::readAll - Valores: {}", ids);
+        return MultiGet.of(ids, itensPedidoRepository::findDtosByIdIn, ItensPedidoDto::getId);
+    }
+
+    /**
+     * Retorna uma página de itens de pedido (keyset), a partir do identificador informado.
+     * Projeção direta no DTO: nenhuma entidade é carregada.
+     *
+     * @param after último identificador da página anterior (nulo = primeira página)
+     * @param limit tamanho da página
+     * @return Lista de DTOs da página
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<ItensPedidoDto> read(Integer after, int limit) {
+        log.debug("ItensPedidoService::read(after, limit) - Valores: {} e {}", after, limit);
+        return itensPedidoRepository.findDtosAfter(after == null ? 0 : after, Limit.of(IService.pageSize(limit)));
     }
 
     /**
-     * Retorna uma lista de todos os itens de pedido.
+     * Percorre todos os itens de pedido em um cursor JDBC, entregando cada DTO ao consumer.
+     * Projeção direta no DTO: nenhuma entidade fica no contexto de persistência, o consumo de memória é constante.
      *
-     * @return Lista de DTOs dos itens de pedido
+     * @param consumer destino de cada DTO lido
      */
     @Override
     @Transactional(readOnly = true)
-    public List<ItensPedidoDto> read() {
-        log.info("ItensPedidoService::read()");
-        log.debug("Valores: sem parâmetros");
-        // Implementação do método de leitura de todos os itens
-        return List.of();
+    public void stream(Consumer<ItensPedidoDto> consumer) {
+        log.debug("ItensPedidoService::stream");
+        try (Stream<ItensPedidoDto> itens = itensPedidoRepository.streamDtos()) {
+            itens.forEach(consumer);
+        }
     }
 
     /**
      * Atualiza um item de pedido com base no ID informado.
+     * O estoque é ajustado pela diferença entre o produto/quantidade anterior e o novo.
      *
      * @param id ID do item de pedido a ser atualizado
      * @param entity DTO do item de pedido com os dados atualizados
@@ -72,22 +162,108 @@ public class ItensPedidoService implements IService<ItensPedidoDto, Integer> {
     @Override
     @Transactional(rollbackFor = Throwable.class)
     public ItensPedidoDto update(Integer id, ItensPedidoDto entity) {
-        log.info("ItensPedidoService::update");
-        log.debug("Valores: {} e {}", id, entity);
-        // Implementação do método de atualização
-        return null;
+        log.debug("ItensPedidoService::update - Valores: {} e {}", id, entity);
+        validarPedido(entity.getNroPedido());
+        ItensPedidoModel item = findById(id);
+        Long nroPedidoAnterior = item.getNroPedido();
+        produtoService.ajustarEstoque(new DiferencaEstoque()
+                .remover(item.getIdProduto(), item.getQtdeItem())
+                .adicionar(entity.getIdProduto(), entity.getQtdeItem()));
+        itensPedidoMapper.update(entity, item);
+        vincularPedido(item, entity.getNroPedido());
+        alterouPedidos(nroPedidoAnterior, entity.getNroPedido());
+        return itensPedidoMapper.toDto(item);
     }
 
     /**
-     * Deleta um item de pedido com base no identificador informado.
+     * Atualiza somente os campos enviados (JSON Merge Patch) com um único UPDATE. Só quando qtdeItem ou
+     * idProduto mudam o item atual é lido antes (projeção, sem entidade), para ajustar o estoque pela diferença.
+     *
+     * @param id ID do item de pedido a ser atualizado
+     * @param patch campos a alterar
+     * @return DTO do item de pedido atualizado
+     */
+    @Override
+    @Transactional(rollbackFor = Throwable.class)
+    public ItensPedidoDto patch(Integer id, ObjectNode patch) {
+        log.debug("ItensPedidoService::patch - Valores: {} e {}", id, patch);
+        Map<String, Object> valores = mergePatchSupport.valores(patch, ItensPedidoDto.class, CAMPOS_PATCH);
+        validarPedido((Long) valores.get("nroPedido"));
+        if (valores.containsKey("qtdeItem") || valores.containsKey("idProduto")) {
+            ItensPedidoDto atual = itensPedidoRepository.findDtosByIdIn(List.of(id)).stream().findFirst()
+                    .orElseThrow(() -> new NotFoundException("Item do pedido não encontrado: " + id));
+            produtoService.ajustarEstoque(new DiferencaEstoque()
+                    .remover(atual.getIdProduto(), atual.getQtdeItem())
+                    .adicionar(valores.containsKey("idProduto") ? (Long) valores.get("idProduto") : atual.getIdProduto(),
+                            valores.containsKey("qtdeItem") ? (Integer) valores.get("qtdeItem") : atual.getQtdeItem()));
+        }
+        if (!valores.isEmpty()) {
+            pedidoRepository.incrementarVersaoPorItem(id);
+        }
+        if (valores.containsKey("nroPedido")) {
+            //nro_pedido é gravado pela associação; a coluna nroPedido é somente leitura
+            Long nroPedido = (Long) valores.remove("nroPedido");
+            valores.put("pedido", nroPedido == null ? null : entityManager.getReference(PedidoModel.class, nroPedido));
+            alterouPedidos(nroPedido);
+        }
+        if (!valores.isEmpty() && mergePatchSupport.update(ItensPedidoModel.class, id, valores) == 0) {
+            throw new NotFoundException("Item do pedido não encontrado: " + id);
+        }
+        return itensPedidoMapper.toDto(findById(id));
+    }
+
+    /**
+     * Deleta um item de pedido com base no identificador informado, devolvendo a quantidade ao estoque.
      *
      * @param id ID do item de pedido a ser deletado
      */
     @Override
     @Transactional(rollbackFor = Throwable.class)
     public void delete(Integer id) {
-        log.info("ItensPedidoService::delete");
-        log.debug("Valores: {}", id);
-        // Implementação do método de deleção
+        log.debug("ItensPedidoService::delete - Valores: {}", id);
+        ItensPedidoModel item = findById(id);
+        produtoService.ajustarEstoque(new DiferencaEstoque().remover(item.getIdProduto(), item.getQtdeItem()));
+        itensPedidoRepository.delete(item);
+        alterouPedidos(item.getNroPedido());
+    }
+
+    /**
+     * Pedido informado no item precisa existir (senão a FK falharia com erro 500)
+     */
+    private void validarPedido(Long nroPedido) {
+        if (nroPedido != null && !pedidoRepository.existsById(nroPedido)) {
+            throw new UnprocessableEntityException("Pedido não encontrado: " + nroPedido);
+        }
+    }
+
+    private ItensPedidoModel findById(Integer id) {
+        return itensPedidoRepository.findById(id)
+                .orElseThrow(() -> new NotFoundException("Item do pedido não encontrado: " + id));
+    }
+
+    private ItensPedidoModel toModel(ItensPedidoDto dto) {
+        ItensPedidoModel model = itensPedidoMapper.toModel(dto);
+        vincularPedido(model, dto.getNroPedido());
+        return model;
+    }
+
+    /**
+     * Incrementa a versão (ETag) dos pedidos informados, já que o item foi alterado fora do agregado
+     */
+    private void alterouPedidos(Long... nroPedidos) {
+        Set<Long> nros = Stream.of(nroPedidos).filter(Objects::nonNull).collect(Collectors.toSet());
+        if (!nros.isEmpty()) {
+            pedidoRepository.incrementarVersao(nros);
+        }
+    }
+
+    /**
+     * Vincula o item ao pedido por referência (sem SELECT do pedido)
+     */
+    private void vincularPedido(ItensPedidoModel model, Long nroPedido) {
+        if (nroPedido != null) {
+            model.setPedido(entityManager.getReference(PedidoModel.class, nroPedido));
+            model.setNroPedido(nroPedido);
+        }
     }
 }
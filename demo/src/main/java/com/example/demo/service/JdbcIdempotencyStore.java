@@ -0,0 +1,148 @@
+package com.example.demo.service;
+
+import com.example.demo.exception.ConflictException;
+import com.example.demo.exception.UnprocessableEntityException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Chaves de idempotência na tabela idempotencia, compartilhadas entre instâncias.
+ * A reserva é o INSERT da chave (a PK decide quem processa); status nulo = em andamento até reservado_ate.
+ * Reserva vencida (ex.: a instância caiu no meio da requisição) é assumida pela próxima tentativa com a chave.
+ * Cada comando roda em uma transação própria (REQUIRES_NEW), fora da transação do pedido: não depende
+ * do auto-commit do pool (desligado no perfil prod) nem é desfeito por um rollback do pedido.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "application.idempotency.store", havingValue = "jdbc")
+public class JdbcIdempotencyStore implements IdempotencyStore {
+
+    private static final long POLL_MS = 50;
+
+    private record Linha(String hashCorpo, Resposta resposta) {
+    }
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate novaTransacao;
+
+    @Value("${application.idempotency.ttl:24h}")
+    Duration ttl;
+
+    @Value("${application.idempotency.reservation-timeout:60s}")
+    Duration reservationTimeout;
+
+    public JdbcIdempotencyStore(PlatformTransactionManager transactionManager) {
+        novaTransacao = new TransactionTemplate(transactionManager);
+        novaTransacao.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    public Optional<Resposta> reservar(String chave, String hashCorpo, Duration espera) {
+        long limite = System.nanoTime() + espera.toNanos();
+        atualizar("delete from idempotencia where chave = ? and criado_em < ?", chave, expiradoEm());
+        while (true) {
+            try {
+                LocalDateTime agora = LocalDateTime.now();
+                atualizar("insert into idempotencia (chave, hash_corpo, criado_em, reservado_ate) values (?, ?, ?, ?)",
+                        chave, hashCorpo, Timestamp.valueOf(agora), Timestamp.valueOf(agora.plus(reservationTimeout)));
+                return Optional.empty();
+            } catch (DuplicateKeyException e) {
+                Optional<Linha> linha = buscar(chave);
+                if (linha.isEmpty()) {
+                    continue; //liberada entre o insert e o select
+                }
+                if (!linha.get().hashCorpo().equals(hashCorpo)) {
+                    throw new UnprocessableEntityException("Idempotency-Key já utilizada com outro corpo de requisição");
+                }
+                if (linha.get().resposta() != null) {
+                    return Optional.of(linha.get().resposta());
+                }
+                if (assumirReservaVencida(chave)) {
+                    log.debug("JdbcIdempotencyStore::reservar reserva vencida assumida {}", chave);
+                    return Optional.empty();
+                }
+            }
+            if (System.nanoTime() > limite) {
+                throw new ConflictException("Requisição com a mesma Idempotency-Key ainda em andamento");
+            }
+            try {
+                Thread.sleep(POLL_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ConflictException("Requisição com a mesma Idempotency-Key ainda em andamento");
+            }
+        }
+    }
+
+    @Override
+    public void concluir(String chave, Resposta resposta) {
+        atualizar("update idempotencia set status = ?, content_type = ?, location = ?, corpo = ? where chave = ?",
+                resposta.status(), resposta.contentType(), resposta.location(), resposta.corpo(), chave);
+    }
+
+    @Override
+    public void liberar(String chave) {
+        atualizar("delete from idempotencia where chave = ? and status is null", chave);
+    }
+
+    /**
+     * Renova a reserva em andamento cujo prazo venceu; só uma tentativa concorrente consegue (UPDATE condicional)
+     */
+    private boolean assumirReservaVencida(String chave) {
+        LocalDateTime agora = LocalDateTime.now();
+        return atualizar("update idempotencia set criado_em = ?, reservado_ate = ? "
+                        + "where chave = ? and status is null and (reservado_ate is null or reservado_ate < ?)",
+                Timestamp.valueOf(agora), Timestamp.valueOf(agora.plus(reservationTimeout)), chave, Timestamp.valueOf(agora)) == 1;
+    }
+
+    /**
+     * Remove as chaves expiradas (TTL) em lote
+     */
+    @Scheduled(fixedDelayString = "${application.idempotency.cleanup-interval:PT10M}")
+    public void removerExpiradas() {
+        int removidas = atualizar("delete from idempotencia where criado_em < ?", expiradoEm());
+        log.debug("JdbcIdempotencyStore::removerExpiradas {} chaves", removidas);
+    }
+
+    /**
+     * Um comando em transação própria, confirmada ao final (um INSERT que falha por chave duplicada não
+     * aborta nenhuma outra transação)
+     */
+    private int atualizar(String sql, Object... args) {
+        return novaTransacao.execute(status -> jdbcTemplate.update(sql, args));
+    }
+
+    private Timestamp expiradoEm() {
+        return Timestamp.valueOf(LocalDateTime.now().minus(ttl));
+    }
+
+    private Optional<Linha> buscar(String chave) {
+        List<Linha> linhas = jdbcTemplate.query(
+                "select hash_corpo, status, content_type, location, corpo from idempotencia where chave = ?",
+                (rs, i) -> {
+                    int status = rs.getInt("status");
+                    Resposta resposta = rs.wasNull() ? null
+                            : new Resposta(status, rs.getString("content_type"), rs.getString("location"), rs.getBytes("corpo"));
+                    return new Linha(rs.getString("hash_corpo"), resposta);
+                },
+                chave);
+        return linhas.stream().findFirst();
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.demo.service;
+
+import com.example.demo.exception.ConflictException;
+import com.example.demo.exception.UnprocessableEntityException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Chaves de idempotência em memória (Caffeine, limitado por tamanho e TTL), por instância.
+ * Cada chave guarda um future: requisições duplicadas concorrentes esperam a primeira completá-lo.
+ */
+@Component
+@ConditionalOnProperty(name = "application.idempotency.store", havingValue = "memory", matchIfMissing = true)
+public class MemoryIdempotencyStore implements IdempotencyStore {
+
+    private record Entrada(String hashCorpo, CompletableFuture<Resposta> resposta) {
+    }
+
+    private final Cache<String, Entrada> entradas;
+
+    public MemoryIdempotencyStore(@Value("${application.idempotency.maximum-size:100000}") long maximumSize,
+                                  @Value("${application.idempotency.ttl:24h}") Duration ttl) {
+        this.entradas = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    @Override
+    public Optional<Resposta> reservar(String chave, String hashCorpo, Duration espera) {
+        long limite = System.nanoTime() + espera.toNanos();
+        while (true) {
+            Entrada atual = entradas.asMap().putIfAbsent(chave, new Entrada(hashCorpo, new CompletableFuture<>()));
+            if (atual == null) {
+                return Optional.empty();
+            }
+            if (!atual.hashCorpo().equals(hashCorpo)) {
+                throw new UnprocessableEntityException("Idempotency-Key já utilizada com outro corpo de requisição");
+            }
+            try {
+                Resposta resposta = atual.resposta().get(Math.max(0, limite - System.nanoTime()), TimeUnit.NANOSECONDS);
+                if (resposta != null) {
+                    return Optional.of(resposta);
+                }
+                //null: a primeira requisição falhou e liberou a chave; tenta reservar de novo
+            } catch (TimeoutException e) {
+                throw new ConflictException("Requisição com a mesma Idempotency-Key ainda em andamento");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ConflictException("Requisição com a mesma Idempotency-Key ainda em andamento");
+            } catch (ExecutionException e) {
+                //não acontece: o future só é completado com valor
+            }
+        }
+    }
+
+    @Override
+    public void concluir(String chave, Resposta resposta) {
+        Entrada entrada = entradas.getIfPresent(chave);
+        if (entrada != null) {
+            entrada.resposta().complete(resposta);
+        }
+    }
+
+    @Override
+    public void liberar(String chave) {
+        Entrada entrada = entradas.asMap().remove(chave);
+        if (entrada != null) {
+            entrada.resposta().complete(null);
+        }
+    }
+}
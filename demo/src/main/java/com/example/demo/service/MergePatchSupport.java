@@ -0,0 +1,102 @@
+package com.example.demo.service;
+
+
+import com.example.demo.exception.CustomHttpException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.SingularAttribute;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * PATCH com JSON Merge Patch (RFC 7386): converte o documento nos valores dos campos informados
+ * e grava com um único UPDATE contendo somente essas colunas, sem SELECT prévio da entidade.
+ * Campo com null limpa a coluna; campo ausente não é alterado.
+ */
+@Component
+public class MergePatchSupport {
+
+    public static final String MEDIA_TYPE = "application/merge-patch+json";
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    /**
+     * @param patch documento merge patch
+     * @param dtoType DTO usado para converter os valores (datas, decimais etc.)
+     * @param campos campos que podem ser alterados
+     * @return valores dos campos presentes no documento, na ordem do documento
+     * @throws CustomHttpException se houver campo não permitido ou valor inválido
+     */
+    public <D> Map<String, Object> valores(ObjectNode patch, Class<D> dtoType, Set<String> campos) {
+        Map<String, Object> valores = new LinkedHashMap<>();
+        if (patch.isEmpty()) {
+            return valores;
+        }
+        D dto;
+        try {
+            dto = objectMapper.treeToValue(patch, dtoType);
+        } catch (JsonProcessingException e) {
+            throw new CustomHttpException("Documento de patch inválido: " + e.getOriginalMessage());
+        }
+        BeanWrapperImpl wrapper = new BeanWrapperImpl(dto);
+        for (Iterator<String> nomes = patch.fieldNames(); nomes.hasNext(); ) {
+            String campo = nomes.next();
+            if (!campos.contains(campo)) {
+                throw new CustomHttpException("Campo não pode ser alterado: " + campo);
+            }
+            valores.put(campo, wrapper.getPropertyValue(campo));
+        }
+        return valores;
+    }
+
+    /**
+     * UPDATE entidade SET (campos informados)[, versão = versão + 1] WHERE id = :id
+     *
+     * @param entityClass entidade
+     * @param id identificador
+     * @param valores atributo da entidade -> novo valor
+     * @return quantidade de linhas alteradas (0 = não encontrado)
+     */
+    @SuppressWarnings("unchecked")
+    public <E> int update(Class<E> entityClass, Object id, Map<String, Object> valores) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<E> update = cb.createCriteriaUpdate(entityClass);
+        Root<E> root = update.from(entityClass);
+        valores.forEach((atributo, valor) -> {
+            Path<Object> path = root.get(atributo);
+            if (valor == null) {
+                update.<Object>set(path, (Expression<Object>) cb.nullLiteral(path.getJavaType()));
+            } else {
+                update.set(path, valor);
+            }
+        });
+        EntityType<E> entityType = entityManager.getMetamodel().entity(entityClass);
+        for (SingularAttribute<? super E, ?> atributo : entityType.getSingularAttributes()) {
+            if (atributo.isVersion()) {
+                Path<Long> versao = root.get(atributo.getName());
+                update.set(versao, cb.sum(versao, 1L));
+            }
+        }
+        SingularAttribute<? super E, ?> idAttribute = entityType.getId(entityType.getIdType().getJavaType());
+        update.where(cb.equal(root.get(idAttribute.getName()), id));
+        return entityManager.createQuery(update).executeUpdate();
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.demo.service;
+
+import com.example.demo.Dto.MultiGetDto;
+import com.example.demo.exception.CustomHttpException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Leitura por vários IDs: um WHERE id IN (...) por bloco de IN_CHUNK_SIZE IDs,
+ * resultado na ordem dos IDs pedidos e IDs inexistentes listados à parte.
+ */
+final class MultiGet {
+
+    /**
+     * Máximo de IDs por requisição
+     */
+    static final int MAX_IDS = 10_000;
+
+    /**
+     * IDs por consulta: mantém o número de parâmetros do IN (e de planos distintos) limitado
+     */
+    static final int IN_CHUNK_SIZE = 500;
+
+    private MultiGet() {
+    }
+
+    /**
+     * @param ids IDs pedidos (nulos e repetidos são ignorados)
+     * @param consulta busca um bloco de IDs (uma consulta IN)
+     * @param idOf identificador de cada registro retornado
+     * @return encontrados na ordem de ids e IDs não encontrados
+     */
+    static <T, N> MultiGetDto<T, N> of(List<N> ids, Function<List<N>, List<T>> consulta, Function<T, N> idOf) {
+        if (ids.size() > MAX_IDS) {
+            throw new CustomHttpException("Quantidade máxima de IDs por consulta: " + MAX_IDS);
+        }
+        List<N> distintos = ids.stream().filter(Objects::nonNull).distinct().toList();
+        Map<N, T> porId = new HashMap<>(distintos.size() * 2);
+        for (int inicio = 0; inicio < distintos.size(); inicio += IN_CHUNK_SIZE) {
+            List<N> bloco = distintos.subList(inicio, Math.min(inicio + IN_CHUNK_SIZE, distintos.size()));
+            consulta.apply(bloco).forEach(registro -> porId.put(idOf.apply(registro), registro));
+        }
+        List<T> encontrados = new ArrayList<>(porId.size());
+        List<N> naoEncontrados = new ArrayList<>();
+        for (N id : distintos) {
+            T registro = porId.get(id);
+            if (registro == null) {
+                naoEncontrados.add(id);
+            } else {
+                encontrados.add(registro);
+            }
+        }
+        return new MultiGetDto<>(encontrados, naoEncontrados);
+    }
+}
@@ -0,0 +1,234 @@
+package com.example.demo.service;
+
+
+import com.example.demo.Dto.PedidoDto;
+import com.example.demo.Dto.SolicitacaoPedidoDto;
+import com.example.demo.Dto.SolicitacaoPedidoDto.Status;
+import com.example.demo.exception.CustomHttpException;
+import com.example.demo.exception.NotFoundException;
+import com.example.demo.exception.TooManyRequestsException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Criação assíncrona de pedidos: a requisição é validada, entra em uma fila limitada em memória
+ * e é respondida com 202; workers esvaziam a fila em lotes, um lote por transação.
+ * Fila cheia = 429 (back-pressure). No shutdown a fila para de aceitar e os workers
+ * terminam de gravar o que já foi aceito antes do DataSource ser fechado; o que sobrar
+ * depois do shutdown-timeout é gravado pela própria thread do shutdown.
+ */
+@Service
+@Slf4j
+public class PedidoFilaService implements SmartLifecycle {
+
+    private static final long POLL_MS = 200;
+
+    @Autowired
+    PedidoService pedidoService;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Value("${application.pedidos.fila.capacidade:10000}")
+    int capacidade;
+
+    @Value("${application.pedidos.fila.workers:4}")
+    int workers;
+
+    @Value("${application.pedidos.fila.lote:100}")
+    int lote;
+
+    @Value("${application.pedidos.fila.shutdown-timeout:30s}")
+    Duration shutdownTimeout;
+
+    private BlockingQueue<Solicitacao> fila;
+
+    private ExecutorService executor;
+
+    private final Cache<String, SolicitacaoPedidoDto> solicitacoes = Caffeine.newBuilder()
+            .maximumSize(100_000)
+            .expireAfterWrite(Duration.ofHours(1))
+            .build();
+
+    private volatile boolean running;
+
+    private record Solicitacao(String id, PedidoDto pedido) {
+    }
+
+    /**
+     * Valida o pedido e o coloca na fila de processamento.
+     *
+     * @param entity DTO do pedido a ser criado
+     * @return Solicitação com status PENDENTE
+     * @throws TooManyRequestsException se a fila estiver cheia ou em shutdown
+     */
+    public SolicitacaoPedidoDto enfileirar(PedidoDto entity) {
+        log.debug("PedidoFilaService::enfileirar - Valores: {}", entity);
+        validar(entity);
+        Solicitacao solicitacao = new Solicitacao(UUID.randomUUID().toString(), entity);
+        SolicitacaoPedidoDto status = new SolicitacaoPedidoDto(solicitacao.id(), Status.PENDENTE, null, null);
+        solicitacoes.put(solicitacao.id(), status);
+        if (!running || !fila.offer(solicitacao)) {
+            solicitacoes.invalidate(solicitacao.id());
+            throw new TooManyRequestsException("Fila de pedidos cheia, tente novamente mais tarde");
+        }
+        return status;
+    }
+
+    /**
+     * Busca a situação de uma solicitação (mantida por 1 hora após a última alteração).
+     *
+     * @param id identificador da solicitação
+     * @return Situação da solicitação
+     */
+    public SolicitacaoPedidoDto status(String id) {
+        log.debug("PedidoFilaService::status - Valores: {}", id);
+        SolicitacaoPedidoDto status = solicitacoes.getIfPresent(id);
+        if (status == null) {
+            throw new NotFoundException("Solicitação não encontrada: " + id);
+        }
+        return status;
+    }
+
+    private void validar(PedidoDto entity) {
+        if (entity.getItensPedido() == null) {
+            return;
+        }
+        entity.getItensPedido().forEach(item -> {
+            if (item.getQtdeItem() == null || item.getQtdeItem() <= 0) {
+                throw new CustomHttpException("Quantidade do item deve ser maior que zero");
+            }
+        });
+    }
+
+    private void drenar() {
+        List<Solicitacao> bloco = new ArrayList<>(lote);
+        while (running || !fila.isEmpty()) {
+            try {
+                Solicitacao primeira = fila.poll(POLL_MS, TimeUnit.MILLISECONDS);
+                if (primeira == null) {
+                    continue;
+                }
+                bloco.add(primeira);
+                fila.drainTo(bloco, lote - 1);
+                processar(bloco);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                bloco.clear();
+            }
+        }
+    }
+
+    /**
+     * Grava o bloco em uma única transação; se algum pedido falhar (ex.: estoque insuficiente)
+     * o bloco é desfeito e os pedidos são gravados um a um, para isolar o que falhou.
+     */
+    private void processar(List<Solicitacao> bloco) {
+        try {
+            List<PedidoDto> criados = transactionTemplate.execute(status ->
+                    bloco.stream().map(solicitacao -> pedidoService.create(solicitacao.pedido())).toList());
+            for (int i = 0; i < bloco.size(); i++) {
+                concluir(bloco.get(i), criados.get(i));
+            }
+        } catch (RuntimeException e) {
+            log.debug("PedidoFilaService::processar lote de {} falhou, gravando individualmente", bloco.size());
+            bloco.forEach(this::processar);
+        }
+    }
+
+    private void processar(Solicitacao solicitacao) {
+        try {
+            concluir(solicitacao, pedidoService.create(solicitacao.pedido()));
+        } catch (RuntimeException e) {
+            log.warn("PedidoFilaService::processar solicitação {} falhou: {}", solicitacao.id(), e.getMessage());
+            solicitacoes.put(solicitacao.id(), new SolicitacaoPedidoDto(solicitacao.id(), Status.ERRO, null, e.getMessage()));
+        }
+    }
+
+    private void concluir(Solicitacao solicitacao, PedidoDto pedido) {
+        solicitacoes.put(solicitacao.id(), new SolicitacaoPedidoDto(solicitacao.id(), Status.CONCLUIDO, pedido.getNroPedido(), null));
+    }
+
+    @Override
+    public void start() {
+        fila = new ArrayBlockingQueue<>(capacidade);
+        Gauge.builder("demo.pedidos.fila", fila, BlockingQueue::size)
+                .description("Pedidos aguardando gravação")
+                .register(meterRegistry);
+        running = true;
+        executor = Executors.newFixedThreadPool(workers, new CustomizableThreadFactory("pedidos-fila-"));
+        for (int i = 0; i < workers; i++) {
+            executor.execute(this::drenar);
+        }
+        log.info("PedidoFilaService iniciado: capacidade {}, {} workers, lotes de {}", capacidade, workers, lote);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(shutdownTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                log.warn("PedidoFilaService: workers não terminaram em {}, gravando {} pedidos restantes no shutdown",
+                        shutdownTimeout, fila.size());
+                executor.shutdownNow();
+                gravarRestantes();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            executor.shutdownNow();
+            gravarRestantes();
+        }
+    }
+
+    /**
+     * Grava na thread do shutdown o que os workers não chegaram a tirar da fila: pedido aceito (202)
+     * não é descartado. Os workers interrompidos terminam o lote em andamento; a fila é disputada
+     * com eles pelo drainTo, então cada solicitação é gravada uma única vez.
+     */
+    private void gravarRestantes() {
+        List<Solicitacao> bloco = new ArrayList<>(lote);
+        while (fila.drainTo(bloco, lote) > 0) {
+            processar(bloco);
+            bloco.clear();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Para depois do servidor web (que para em DEFAULT_PHASE - 1024/2048), para que nenhuma
+     * requisição seja aceita depois que a fila começou a ser esvaziada.
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+}
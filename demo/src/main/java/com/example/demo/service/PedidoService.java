@@ -1,13 +1,44 @@
 package com.example.demo.service;
 
+import com.example.demo.Dto.BatchResultDto;
 import com.example.demo.Dto.ItensPedidoDto;
+import com.example.demo.Dto.MultiGetDto;
 import com.example.demo.Dto.PedidoDto;
+import com.example.demo.Dto.PedidoResumoDto;
+import com.example.demo.Dto.PedidoTotalDto;
+import com.example.demo.config.MetricsConfig;
+import com.example.demo.exception.CustomHttpException;
+import com.example.demo.exception.NotFoundException;
 import com.example.demo.interfaces.IService;
+import com.example.demo.mapper.ItensPedidoMapper;
+import com.example.demo.mapper.PedidoMapper;
+import com.example.demo.model.ItensPedidoModel;
+import com.example.demo.model.PedidoModel;
+import com.example.demo.repository.ItensPedidoRepository;
+import com.example.demo.repository.PedidoRepository;
+import com.example.demo.repository.PedidoSpecifications;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Serviço para gerenciamento de pedidos. Implementa as operações de
@@ -15,21 +46,81 @@ import java.util.List;
  */
 @Service
 @Slf4j
+@Timed(value = MetricsConfig.SERVICE_TIMER, histogram = true)
 public class PedidoService implements IService<PedidoDto, Integer> {
 
+    private static final int STREAM_CHUNK_SIZE = 500;
+
+    private static final Set<String> CAMPOS_PATCH = Set.of("datPedido", "itensPedido");
+
+    @Autowired
+    PedidoRepository pedidoRepository;
+
+    @Autowired
+    ItensPedidoRepository itensPedidoRepository;
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Autowired
+    BatchInsertSupport batchInsertSupport;
+
+    @Autowired
+    PedidoMapper pedidoMapper;
+
+    @Autowired
+    ItensPedidoMapper itensPedidoMapper;
+
+    @Autowired
+    ProdutoService produtoService;
+
+    @Autowired
+    MergePatchSupport mergePatchSupport;
+
+    @Autowired
+    PgCopySupport pgCopySupport;
+
     /**
-     * Cria um novo pedido.
+     * Cria um novo pedido, reservando o estoque dos produtos dos itens na mesma transação.
+     * As reservas são feitas em ordem crescente de idProduto para que pedidos concorrentes
+     * bloqueiem as linhas de produto sempre na mesma ordem (sem deadlock).
      *
      * @param entity DTO do pedido a ser criado
      * @return DTO do pedido criado
+     * @throws com.example.demo.exception.ConflictException se algum produto não tiver estoque suficiente
      */
     @Override
     @Transactional(rollbackFor = Throwable.class)
     public PedidoDto create(PedidoDto entity) {
-        log.info("PedidoService::create");
-        log.debug("Valores: {}", entity);
-        // Implementação do método de criação
-        return null;
+        log.debug("PedidoService::create - Valores: {}", entity);
+        ajustarEstoque(List.of(), entity.getItensPedido());
+        PedidoModel pedido = pedidoRepository.save(pedidoMapper.toModel(entity));
+        return pedidoMapper.toDto(pedido, pedido.getItensPedido());
+    }
+
+    /**
+     * Ajusta o estoque pela diferença, por produto, entre os itens atuais do pedido e os novos:
+     * aumento é reservado (ConflictException se faltar estoque), redução é devolvida (ver DiferencaEstoque).
+     */
+    private void ajustarEstoque(List<ItensPedidoModel> atuais, List<ItensPedidoDto> novos) {
+        DiferencaEstoque diferenca = new DiferencaEstoque();
+        if (novos != null) {
+            novos.forEach(item -> diferenca.adicionar(item.getIdProduto(), item.getQtdeItem()));
+        }
+        atuais.forEach(item -> diferenca.remover(item.getIdProduto(), item.getQtdeItem()));
+        produtoService.ajustarEstoque(diferenca);
+    }
+
+    /**
+     * Cria pedidos em lote. Não reserva estoque (carga/migração de pedidos já faturados). A origem é consumida em blocos de application.batch.chunk-size,
+     * cada bloco em uma transação própria com inserts agrupados via JDBC batch.
+     *
+     * @param entities origem dos DTOs (lida em streaming)
+     * @return Resumo da carga
+     */
+    public BatchResultDto create(Iterator<PedidoDto> entities) {
+        log.debug("PedidoService::create(batch)");
+        return batchInsertSupport.insert(entities, pedidoMapper::toModel);
     }
 
     /**
@@ -41,28 +132,161 @@ public class PedidoService implements IService<PedidoDto, Integer> {
     @Override
     @Transactional(readOnly = true)
     public PedidoDto read(Integer id) {
-        log.info("PedidoService::read(id)");
-        log.debug("Valores: {}", id);
-        // Implementação do método de leitura por ID
-        return null;
+        log.debug("PedidoService::read(id) - Valores: {}", id);
+        PedidoModel pedido = findWithItens(id);
+        return pedidoMapper.toDto(pedido, pedido.getItensPedido());
+    }
+
+    /**
+     * Busca vários pedidos por ID com consultas IN em blocos (MultiGet); os itens de cada bloco
+     * vêm de uma única consulta IN adicional.
+     *
+     * @param ids IDs dos pedidos
+     * @return pedidos encontrados, na ordem dos IDs, e IDs inexistentes
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public MultiGetDto<PedidoDto, Integer> readAll(List<Integer> ids) {
+        log.debug("PedidoService::readAll - Valores: {}", ids);
+        return MultiGet.of(ids,
+                bloco -> comItens(pedidoRepository.findDtosByNroPedidoIn(bloco.stream().map(Integer::longValue).toList())),
+                pedido -> pedido.getNroPedido().intValue());
     }
 
     /**
-     * Retorna uma lista de todos os pedidos.
+     * Retorna uma página de pedidos (keyset), a partir do identificador informado.
+     * Pedidos e itens são projetados direto nos DTOs: nenhuma entidade é carregada.
      *
-     * @return Lista de DTOs dos pedidos
+     * @param after último identificador da página anterior (nulo = primeira página)
+     * @param limit tamanho da página
+     * @return Lista de DTOs da página
      */
     @Override
     @Transactional(readOnly = true)
-    public List<PedidoDto> read() {
-        log.info("PedidoService::read()");
-        log.debug("Valores: sem parâmetros");
-        // Implementação do método de leitura de todos os pedidos
-        return List.of();
+    public List<PedidoDto> read(Integer after, int limit) {
+        log.debug("PedidoService::read(after, limit) - Valores: {} e {}", after, limit);
+        return comItens(pedidoRepository.findDtosAfter(after == null ? 0L : after, Limit.of(IService.pageSize(limit))));
+    }
+
+    /**
+     * Busca pedidos por período e/ou produto, retornando só o resumo (nroPedido, datPedido).
+     * Exige ao menos um filtro indexado para nunca varrer a tabela inteira; paginação por keyset.
+     *
+     * @param de data inicial (inclusiva)
+     * @param ate data final (exclusiva)
+     * @param idProduto produto que deve constar nos itens
+     * @param after último nroPedido da página anterior (nulo = primeira página)
+     * @param limit tamanho da página (máximo IService.MAX_PAGE_SIZE)
+     * @return Resumos dos pedidos encontrados, ordenados pelo nroPedido
+     */
+    @Transactional(readOnly = true)
+    public List<PedidoResumoDto> buscar(LocalDateTime de, LocalDateTime ate, Long idProduto, Integer after, int limit) {
+        log.debug("PedidoService::buscar - Valores: {}, {}, {}, {} e {}", de, ate, idProduto, after, limit);
+        if (de == null && ate == null && idProduto == null) {
+            throw new CustomHttpException("Informe ao menos um filtro: de, ate ou idProduto");
+        }
+        if (de != null && ate != null && !de.isBefore(ate)) {
+            throw new CustomHttpException("A data inicial deve ser anterior à data final");
+        }
+        Specification<PedidoModel> filtro = PedidoSpecifications.depoisDe(after == null ? 0L : after);
+        if (de != null) {
+            filtro = filtro.and(PedidoSpecifications.dataDe(de));
+        }
+        if (ate != null) {
+            filtro = filtro.and(PedidoSpecifications.dataAte(ate));
+        }
+        if (idProduto != null) {
+            filtro = filtro.and(PedidoSpecifications.contemProduto(idProduto));
+        }
+        return pedidoRepository.findResumos(filtro, Limit.of(IService.pageSize(limit)));
+    }
+
+    /**
+     * Exporta os pedidos do período com COPY (SELECT ...) TO STDOUT direto para o stream, ordenados pelo nroPedido.
+     * CSV: uma linha por item; NDJSON: um pedido por linha, com os itens agregados no banco (json_agg).
+     * O NDJSON sai pelo modo csv do COPY com aspas/delimitador que o JSON nunca contém, para o COPY
+     * não escapar as barras invertidas do JSON.
+     *
+     * @param de data inicial (inclusiva, nula = sem limite)
+     * @param ate data final (exclusiva, nula = sem limite)
+     * @param formato csv ou ndjson
+     * @param out destino (corpo da resposta)
+     * @return linhas exportadas
+     */
+    public long exportar(LocalDateTime de, LocalDateTime ate, FormatoExportacao formato, OutputStream out) {
+        log.debug("PedidoService::exportar - Valores: {}, {} e {}", de, ate, formato);
+        //COPY não aceita parâmetros: as datas entram como literais gerados a partir de LocalDateTime (sem texto do cliente)
+        String filtro = (de == null ? "" : " and p.data_pedido >= timestamp '" + de + "'")
+                + (ate == null ? "" : " and p.data_pedido < timestamp '" + ate + "'");
+        String sql = switch (formato) {
+            case CSV -> "copy (select p.nro_pedido, p.data_pedido, i.id, i.id_produto, i.qtde_item, i.val_unidade"
+                    + " from pedidos p left join itens_pedido i on i.nro_pedido = p.nro_pedido"
+                    + " where true" + filtro + " order by p.nro_pedido, i.id)"
+                    + " to stdout with (format csv, header true)";
+            case NDJSON -> "copy (select json_build_object('nroPedido', p.nro_pedido, 'datPedido', p.data_pedido, 'itensPedido',"
+                    + " coalesce((select json_agg(json_build_object('id', i.id, 'qtdeItem', i.qtde_item, 'valUnidade', i.val_unidade,"
+                    + " 'idProduto', i.id_produto, 'nroPedido', i.nro_pedido) order by i.id)"
+                    + " from itens_pedido i where i.nro_pedido = p.nro_pedido), '[]'::json))"
+                    + " from pedidos p where true" + filtro + " order by p.nro_pedido)"
+                    + " to stdout with (format csv, quote e'\\x01', delimiter e'\\x02')";
+        };
+        return pgCopySupport.copyOut(sql, out);
+    }
+
+    /**
+     * Percorre todos os pedidos em um cursor JDBC, entregando cada DTO ao consumer.
+     * Os pedidos são agrupados em blocos de STREAM_CHUNK_SIZE para carregar os itens com
+     * uma consulta IN por bloco; tudo é projetado direto nos DTOs (nada fica no contexto de persistência).
+     *
+     * @param consumer destino de cada DTO lido
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void stream(Consumer<PedidoDto> consumer) {
+        log.debug("PedidoService::stream");
+        try (Stream<PedidoDto> pedidos = pedidoRepository.streamDtos()) {
+            List<PedidoDto> bloco = new ArrayList<>(STREAM_CHUNK_SIZE);
+            pedidos.forEach(pedido -> {
+                bloco.add(pedido);
+                if (bloco.size() == STREAM_CHUNK_SIZE) {
+                    emit(bloco, consumer);
+                }
+            });
+            emit(bloco, consumer);
+        }
+    }
+
+    /**
+     * Calcula o total do pedido (SUM(qtdeItem * valUnidade)) no banco, em uma única consulta.
+     *
+     * @param id ID do pedido
+     * @return Total do pedido
+     */
+    @Transactional(readOnly = true)
+    public PedidoTotalDto total(Integer id) {
+        log.debug("PedidoService::total(id) - Valores: {}", id);
+        return pedidoRepository.findTotalByNroPedido(id)
+                .orElseThrow(() -> new NotFoundException("Pedido não encontrado: " + id));
+    }
+
+    /**
+     * Calcula os totais de vários pedidos em uma única consulta. IDs inexistentes são omitidos.
+     *
+     * @param ids IDs dos pedidos (no máximo MAX_PAGE_SIZE)
+     * @return Totais ordenados pelo nroPedido
+     */
+    @Transactional(readOnly = true)
+    public List<PedidoTotalDto> total(List<Integer> ids) {
+        log.debug("PedidoService::total(ids) - Valores: {}", ids);
+        if (ids.size() > MAX_PAGE_SIZE) {
+            throw new CustomHttpException("Quantidade máxima de pedidos por consulta: " + MAX_PAGE_SIZE);
+        }
+        return pedidoRepository.findTotalByNroPedidoIn(ids.stream().map(Integer::longValue).distinct().toList());
     }
 
     /**
      * Atualiza um pedido com base no ID informado.
+     * Se os itens forem enviados, o estoque é ajustado pela diferença em relação aos itens atuais.
      *
      * @param id ID do pedido a ser atualizado
      * @param entity DTO do pedido com os dados atualizados
@@ -71,24 +295,97 @@ public class PedidoService implements IService<PedidoDto, Integer> {
     @Override
     @Transactional(rollbackFor = Throwable.class)
     public PedidoDto update(Integer id, PedidoDto entity) {
-        log.info("PedidoService::update");
-        log.debug("Valores: {} e {}", id, entity);
-        // Implementação do método de atualização
-        return null;
+        log.debug("PedidoService::update - Valores: {} e {}", id, entity);
+        PedidoModel pedido = findWithItens(id);
+        pedidoMapper.update(entity, pedido);
+        if (entity.getItensPedido() != null) {
+            //PUT substitui os itens: os removidos da coleção são apagados (orphanRemoval)
+            ajustarEstoque(pedido.getItensPedido(), entity.getItensPedido());
+            pedido.getItensPedido().clear();
+            itensPedidoMapper.toModels(entity.getItensPedido()).forEach(pedido::addItem);
+            entityManager.lock(pedido, LockModeType.OPTIMISTIC_FORCE_INCREMENT);
+        }
+        pedidoRepository.flush(); //gera os ids dos itens novos antes de montar a resposta
+        return pedidoMapper.toDto(pedido, pedido.getItensPedido());
     }
 
     /**
-     * Deleta um pedido com base no identificador informado.
+     * Atualiza somente os campos enviados (JSON Merge Patch). A data é gravada com um único UPDATE,
+     * sem SELECT prévio; itensPedido, se presente, substitui a lista inteira (semântica de array do
+     * merge patch), ajustando o estoque pela diferença, e, por isso, carrega o pedido com os itens;
+     * itensPedido null remove todos os itens. datPedido null é rejeitado (400).
+     *
+     * @param id ID do pedido a ser atualizado
+     * @param patch campos a alterar
+     * @return DTO do pedido atualizado
+     */
+    @Override
+    @Transactional(rollbackFor = Throwable.class)
+    @SuppressWarnings("unchecked")
+    public PedidoDto patch(Integer id, ObjectNode patch) {
+        log.debug("PedidoService::patch - Valores: {} e {}", id, patch);
+        Map<String, Object> valores = mergePatchSupport.valores(patch, PedidoDto.class, CAMPOS_PATCH);
+        boolean substituirItens = valores.containsKey("itensPedido");
+        List<ItensPedidoDto> itens = (List<ItensPedidoDto>) valores.remove("itensPedido");
+        if (itens == null) {
+            itens = List.of();
+        }
+        if (valores.containsKey("datPedido")) {
+            if (valores.get("datPedido") == null) {
+                throw new CustomHttpException("datPedido não pode ser nulo");
+            }
+            valores.put("datPedido", pedidoMapper.toLocalDateTime((Date) valores.get("datPedido")));
+        }
+        if (!valores.isEmpty() && mergePatchSupport.update(PedidoModel.class, id.longValue(), valores) == 0) {
+            throw new NotFoundException("Pedido não encontrado: " + id);
+        }
+        PedidoModel pedido = findWithItens(id);
+        if (substituirItens) {
+            ajustarEstoque(pedido.getItensPedido(), itens);
+            pedido.getItensPedido().clear();
+            itensPedidoMapper.toModels(itens).forEach(pedido::addItem);
+            entityManager.lock(pedido, LockModeType.OPTIMISTIC_FORCE_INCREMENT);
+            pedidoRepository.flush();
+        }
+        return pedidoMapper.toDto(pedido, pedido.getItensPedido());
+    }
+
+    /**
+     * Deleta um pedido com base no identificador informado, devolvendo ao estoque a quantidade dos itens.
      *
      * @param id ID do pedido a ser deletado
      */
     @Override
     @Transactional(rollbackFor = Throwable.class)
     public void delete(Integer id) {
-        log.info("PedidoService::delete");
-        log.debug("Valores: {}", id);
-        // Implementação do método de deleção
+        log.debug("PedidoService::delete - Valores: {}", id);
+        PedidoModel pedido = findWithItens(id);
+        ajustarEstoque(pedido.getItensPedido(), List.of());
+        pedidoRepository.delete(pedido);
+    }
+
+    private PedidoModel findWithItens(Integer id) {
+        return pedidoRepository.findWithItensPedidoByNroPedido(id)
+                .orElseThrow(() -> new NotFoundException("Pedido não encontrado: " + id));
     }
 
+    private void emit(List<PedidoDto> bloco, Consumer<PedidoDto> consumer) {
+        comItens(bloco).forEach(consumer);
+        bloco.clear();
+    }
 
+    /**
+     * Preenche os itens de uma página de pedidos com uma única consulta IN (evita N+1),
+     * também projetada direto no DTO.
+     */
+    private List<PedidoDto> comItens(List<PedidoDto> pedidos) {
+        if (pedidos.isEmpty()) {
+            return pedidos;
+        }
+        Map<Long, PedidoDto> porNroPedido = new HashMap<>(pedidos.size() * 2);
+        pedidos.forEach(pedido -> porNroPedido.put(pedido.getNroPedido(), pedido));
+        itensPedidoRepository.findDtosByNroPedidoIn(porNroPedido.keySet())
+                .forEach(item -> porNroPedido.get(item.getNroPedido()).getItensPedido().add(item));
+        return pedidos;
     }
+}
@@ -0,0 +1,73 @@
+package com.example.demo.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * COPY do PostgreSQL pelo CopyManager do driver: os dados passam direto entre o banco e o stream,
+ * em blocos, sem entidades, DTOs nem ResultSet (memória constante). Só funciona com o driver do PostgreSQL.
+ */
+@Component
+@Slf4j
+public class PgCopySupport {
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    /**
+     * Executa um COPY ... FROM STDIN na transação corrente (ex.: carga em tabela temporária de staging).
+     *
+     * @param sql comando COPY
+     * @param in origem dos dados (lida em blocos, em streaming)
+     * @return linhas copiadas
+     */
+    public long copyIn(String sql, InputStream in) {
+        Long linhas = jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            try {
+                return connection.unwrap(PGConnection.class).getCopyAPI().copyIn(sql, in);
+            } catch (IOException e) {
+                //falha na leitura do corpo (ex.: cliente desconectou durante o upload); o driver cancela o COPY
+                throw new UncheckedIOException(e);
+            }
+        });
+        return linhas == null ? 0 : linhas;
+    }
+
+    /**
+     * Executa um COPY ... TO STDOUT em uma transação somente leitura (vai para a réplica, se houver).
+     * Se o cliente desconectar, a escrita falha e o driver cancela o COPY no servidor.
+     *
+     * @param sql comando COPY (sem parâmetros: o COPY não aceita bind)
+     * @param out destino dos dados
+     * @return linhas copiadas
+     */
+    public long copyOut(String sql, OutputStream out) {
+        TransactionTemplate leitura = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        leitura.setReadOnly(true);
+        long inicio = System.nanoTime();
+        Long linhas = leitura.execute(status -> jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            try {
+                return connection.unwrap(PGConnection.class).getCopyAPI().copyOut(sql, out);
+            } catch (IOException e) {
+                //cliente desconectou (o COPY já foi cancelado pelo driver)
+                throw new UncheckedIOException(e);
+            }
+        }));
+        long tempoMs = (System.nanoTime() - inicio) / 1_000_000;
+        log.info("PgCopySupport::copyOut {} linhas em {} ms", linhas, tempoMs);
+        return linhas == null ? 0 : linhas;
+    }
+}
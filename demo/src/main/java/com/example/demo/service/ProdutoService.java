@@ -1,15 +1,47 @@
 package com.example.demo.service;
 
 
+import com.example.demo.Dto.ImportResultDto;
 import com.example.demo.Dto.ItensPedidoDto;
+import com.example.demo.Dto.MultiGetDto;
 import com.example.demo.Dto.PedidoDto;
 import com.example.demo.Dto.ProdutoDto;
+import com.example.demo.config.CacheConfig;
+import com.example.demo.config.MetricsConfig;
+import com.example.demo.exception.ConflictException;
+import com.example.demo.exception.CustomHttpException;
+import com.example.demo.exception.NotFoundException;
+import com.example.demo.exception.UnprocessableEntityException;
 import com.example.demo.interfaces.IService;
+import com.example.demo.mapper.ProdutoMapper;
+import com.example.demo.model.ProdutoModel;
+import com.example.demo.repository.ProdutoRepository;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.annotation.Timed;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Serviço para gerenciamento de produtos. Implementa as operações de
@@ -17,8 +49,37 @@ import java.util.List;
  */
 @Service
 @Slf4j
+@Timed(value = MetricsConfig.SERVICE_TIMER, histogram = true)
 public class ProdutoService implements IService<ProdutoDto, Integer> {
 
+    /**
+     * Motivos de rejeição devolvidos no resumo da importação (o total vem em rejeitados)
+     */
+    private static final int MAX_ERROS_IMPORTACAO = 100;
+
+    private static final Set<String> CAMPOS_PATCH = Set.of("desPro", "valProduto");
+
+    @Autowired
+    ProdutoRepository produtoRepository;
+
+    @Autowired
+    ProdutoMapper produtoMapper;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    MergePatchSupport mergePatchSupport;
+
+    @Autowired
+    CacheManager cacheManager;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    PgCopySupport pgCopySupport;
+
     /**
      * Cria um novo produto.
      *
@@ -28,67 +89,297 @@ public class ProdutoService implements IService<ProdutoDto, Integer> {
     @Override
     @Transactional(rollbackFor = Throwable.class)
     public ProdutoDto create(ProdutoDto entity) {
-        log.info("ProdutoService::create");
-        log.debug("Valores: {}", entity);
-        // Implementação do método de criação
-        return null;
+        log.debug("ProdutoService::create - Valores: {}", entity);
+        return produtoMapper.toDto(produtoRepository.save(produtoMapper.toModel(entity)));
     }
 
     /**
      * Busca um produto com base no seu identificador.
+     * O resultado fica no cache "produtos" até a alteração/remoção do produto ou o TTL.
      *
      * @param id ID do produto a ser buscado
      * @return DTO do produto encontrado
      */
     @Override
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.PRODUTOS, key = "#id")
     public ProdutoDto read(Integer id) {
-        log.info("ProdutoService::read(id)");
-        log.debug("Valores: {}", id);
-        // Implementação do método de leitura por ID
-        return null;
+        log.debug("ProdutoService::read(id) - Valores: {}", id);
+        return produtoMapper.toDto(findById(id));
     }
 
     /**
-     * Retorna uma lista de todos os produtos.
+     * Busca vários produtos por ID. Os que estão no cache "produtos" não vão ao banco;
+     * os demais são lidos com consultas IN em blocos (MultiGet) e colocados no cache.
      *
-     * @return Lista de DTOs dos produtos
+     * @param ids IDs dos produtos
+     * @return produtos encontrados, na ordem dos IDs, e IDs inexistentes
      */
     @Override
     @Transactional(readOnly = true)
-    public List<ProdutoDto> read() {
-        log.info("ProdutoService::read()");
-        log.debug("Valores: sem parâmetros");
-        // Implementação do método de leitura de todos os produtos
-        return List.of();
+    public MultiGetDto<ProdutoDto, Integer> readAll(List<Integer> ids) {
+        log.debug("ProdutoService::readAll - Valores: {}", ids);
+        Cache cache = cacheManager.getCache(CacheConfig.PRODUTOS);
+        return MultiGet.of(ids, bloco -> {
+            List<ProdutoDto> produtos = new ArrayList<>(bloco.size());
+            List<Long> faltantes = new ArrayList<>();
+            for (Integer id : bloco) {
+                ProdutoDto produto = cache.get(id, ProdutoDto.class);
+                if (produto == null) {
+                    faltantes.add(id.longValue());
+                } else {
+                    produtos.add(produto);
+                }
+            }
+            if (!faltantes.isEmpty()) {
+                for (ProdutoDto produto : produtoRepository.findDtosByIdProdutoIn(faltantes)) {
+                    cache.put(produto.getIdProduto().intValue(), produto);
+                    produtos.add(produto);
+                }
+            }
+            return produtos;
+        }, produto -> produto.getIdProduto().intValue());
+    }
+
+    /**
+     * Retorna uma página de produtos (keyset), a partir do identificador informado.
+     * Projeção direta no DTO: nenhuma entidade é carregada.
+     *
+     * @param after último identificador da página anterior (nulo = primeira página)
+     * @param limit tamanho da página
+     * @return Lista de DTOs da página
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<ProdutoDto> read(Integer after, int limit) {
+        log.debug("ProdutoService::read(after, limit) - Valores: {} e {}", after, limit);
+        return produtoRepository.findDtosAfter(after == null ? 0L : after.longValue(), Limit.of(IService.pageSize(limit)));
+    }
+
+    /**
+     * Percorre todos os produtos em um cursor JDBC, entregando cada DTO ao consumer.
+     * Projeção direta no DTO: nenhuma entidade fica no contexto de persistência, o consumo de memória é constante.
+     *
+     * @param consumer destino de cada DTO lido
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void stream(Consumer<ProdutoDto> consumer) {
+        log.debug("ProdutoService::stream");
+        try (Stream<ProdutoDto> produtos = produtoRepository.streamDtos()) {
+            produtos.forEach(consumer);
+        }
     }
 
     /**
      * Atualiza um produto com base no ID informado.
+     * Usa lock otimista (@Version) a partir da versão enviada pelo cliente: se o produto mudou depois da
+     * leitura do cliente (ex.: reserva de estoque), a atualização é recusada em vez de sobrescrever o estoque.
+     * A entrada do cache é removida após o commit.
      *
      * @param id ID do produto a ser atualizado
-     * @param entity DTO do produto com os dados atualizados
+     * @param entity DTO do produto com os dados atualizados e a versão lida
      * @return DTO do produto atualizado
+     * @throws ConflictException se a versão não for a atual
      */
     @Override
     @Transactional(rollbackFor = Throwable.class)
+    @CacheEvict(cacheNames = CacheConfig.PRODUTOS, key = "#id")
     public ProdutoDto update(Integer id, ProdutoDto entity) {
-        log.info("ProdutoService::update");
-        log.debug("Valores: {} e {}", id, entity);
-        // Implementação do método de atualização
-        return null;
+        log.debug("ProdutoService::update - Valores: {} e {}", id, entity);
+        if (entity.getVersao() == null) {
+            throw new CustomHttpException("Informe a versão do produto lida antes da alteração");
+        }
+        ProdutoModel produto = findById(id);
+        if (produto.getVersao() == null || !produto.getVersao().equals(entity.getVersao())) {
+            throw new ConflictException("Produto alterado concorrentemente: " + id);
+        }
+        produtoMapper.update(entity, produto);
+        try {
+            produtoRepository.flush();
+        } catch (OptimisticLockingFailureException e) {
+            throw new ConflictException("Produto alterado concorrentemente: " + id);
+        }
+        return produtoMapper.toDto(produto);
+    }
+
+    /**
+     * Atualiza somente os campos enviados (JSON Merge Patch) com um único UPDATE, sem SELECT prévio;
+     * a versão é incrementada no mesmo comando. A entrada do cache é removida no commit da transação.
+     * qtdeProduto não é aceito: o estoque só muda por PUT (com versão) ou pelas reservas dos pedidos,
+     * para que um patch não sobrescreva reservas concorrentes.
+     *
+     * @param id ID do produto a ser atualizado
+     * @param patch campos a alterar
+     * @return DTO do produto atualizado
+     */
+    @Override
+    @Transactional(rollbackFor = Throwable.class)
+    @CacheEvict(cacheNames = CacheConfig.PRODUTOS, key = "#id")
+    public ProdutoDto patch(Integer id, ObjectNode patch) {
+        log.debug("ProdutoService::patch - Valores: {} e {}", id, patch);
+        Map<String, Object> valores = mergePatchSupport.valores(patch, ProdutoDto.class, CAMPOS_PATCH);
+        if (!valores.isEmpty() && mergePatchSupport.update(ProdutoModel.class, id.longValue(), valores) == 0) {
+            throw new NotFoundException("Produto não encontrado: " + id);
+        }
+        return produtoMapper.toDto(findById(id));
+    }
+
+    /**
+     * Reserva estoque do produto com um UPDATE condicional (qtdeProduto >= qtde), sem lock de leitura.
+     * Participa da transação de quem chama (ex.: criação do pedido): um rollback desfaz a reserva.
+     * O produto com a nova quantidade vai para o cache no commit da transação, em vez de esvaziar a entrada
+     * a cada pedido.
+     *
+     * @param idProduto ID do produto
+     * @param qtde quantidade a reservar
+     * @throws ConflictException se o estoque for insuficiente ou o produto não existir
+     */
+    @Transactional(rollbackFor = Throwable.class)
+    public void reservar(Long idProduto, double qtde) {
+        log.debug("ProdutoService::reservar - Valores: {} e {}", idProduto, qtde);
+        if (produtoRepository.reservar(idProduto, qtde) == 0) {
+            throw new ConflictException("Estoque insuficiente para o produto: " + idProduto);
+        }
+        produtoRepository.findDtoByIdProduto(idProduto).ifPresent(this::atualizarCache);
+    }
+
+    /**
+     * Devolve ao estoque uma quantidade reservada (itens removidos/reduzidos ou pedido excluído).
+     * Participa da transação de quem chama; produto que não existe mais é ignorado.
+     * O produto com a nova quantidade vai para o cache no commit da transação.
+     *
+     * @param idProduto ID do produto
+     * @param qtde quantidade a devolver
+     */
+    @Transactional(rollbackFor = Throwable.class)
+    public void liberar(Long idProduto, double qtde) {
+        log.debug("ProdutoService::liberar - Valores: {} e {}", idProduto, qtde);
+        if (produtoRepository.liberar(idProduto, qtde) > 0) {
+            produtoRepository.findDtoByIdProduto(idProduto).ifPresent(this::atualizarCache);
+        }
+    }
+
+    /**
+     * Aplica ao estoque a diferença de itens de um pedido (reserva o que aumentou, devolve o que diminuiu),
+     * em ordem crescente de idProduto. Participa da transação de quem chama.
+     *
+     * @param diferenca quantidades por produto
+     * @throws ConflictException se algum produto não tiver estoque suficiente
+     */
+    @Transactional(rollbackFor = Throwable.class)
+    public void ajustarEstoque(DiferencaEstoque diferenca) {
+        diferenca.aplicar(this::reservar, this::liberar);
+    }
+
+    /**
+     * Importa o catálogo de um CSV (cabeçalho + colunas idProduto,desPro,qtdeProduto,valProduto) em uma transação:
+     * COPY FROM STDIN para uma tabela temporária, validação em SQL (linhas inválidas são rejeitadas com o motivo)
+     * e gravação por conjunto: linhas com idProduto entram por INSERT ... ON CONFLICT DO UPDATE, linhas sem
+     * idProduto são inseridas com id gerado. O cache "produtos" é limpo após o commit. Só PostgreSQL.
+     *
+     * @param csv conteúdo do arquivo (lido em streaming)
+     * @return Resumo da importação
+     */
+    @CacheEvict(cacheNames = CacheConfig.PRODUTOS, allEntries = true)
+    public ImportResultDto importar(InputStream csv) {
+        log.debug("ProdutoService::importar");
+        long inicio = System.nanoTime();
+        ImportResultDto resultado = transactionTemplate.execute(status -> {
+            jdbcTemplate.execute("create temp table produtos_import (linha bigint generated always as identity, "
+                    + "id_produto bigint, des_pro varchar(255), qtde_produto double precision, val_produto numeric(15, 2), "
+                    + "erro varchar(100)) on commit drop");
+            long lidos;
+            try {
+                lidos = pgCopySupport.copyIn("copy produtos_import (id_produto, des_pro, qtde_produto, val_produto) "
+                        + "from stdin with (format csv, header true)", csv);
+            } catch (DataAccessException e) {
+                throw new UnprocessableEntityException("CSV inválido: " + e.getMostSpecificCause().getMessage());
+            } catch (UncheckedIOException e) {
+                //corpo interrompido (ex.: cliente desconectou no meio do upload): nada foi gravado
+                throw new CustomHttpException("Falha ao ler o CSV: " + e.getCause().getMessage());
+            }
+
+            jdbcTemplate.update("update produtos_import set erro = 'desPro obrigatório' where coalesce(trim(des_pro), '') = ''");
+            jdbcTemplate.update("update produtos_import set erro = 'qtdeProduto negativa' where erro is null and qtde_produto < 0");
+            jdbcTemplate.update("update produtos_import set erro = 'valProduto negativo' where erro is null and val_produto < 0");
+            //o mesmo id duas vezes no ON CONFLICT falharia o comando inteiro: vale a última linha
+            jdbcTemplate.update("update produtos_import s set erro = 'idProduto repetido (vale a última linha)' "
+                    + "where erro is null and id_produto is not null and exists (select 1 from produtos_import t "
+                    + "where t.id_produto = s.id_produto and t.linha > s.linha and t.erro is null)");
+            long rejeitados = jdbcTemplate.queryForObject("select count(*) from produtos_import where erro is not null", Long.class);
+            List<String> erros = jdbcTemplate.queryForList("select 'linha ' || (linha + 1) || ': ' || erro from produtos_import "
+                    + "where erro is not null order by linha limit " + MAX_ERROS_IMPORTACAO, String.class);
+
+            //xmax = 0 identifica as linhas inseridas (as atualizadas têm xmax da própria transação)
+            Map<String, Object> upsert = jdbcTemplate.queryForMap("with gravados as ("
+                    + "insert into produtos (id_produto, des_pro, qtde_produto, val_produto, versao) "
+                    + "select id_produto, des_pro, qtde_produto, val_produto, 0 from produtos_import "
+                    + "where erro is null and id_produto is not null "
+                    + "on conflict (id_produto) do update set des_pro = excluded.des_pro, qtde_produto = excluded.qtde_produto, "
+                    + "val_produto = excluded.val_produto, versao = produtos.versao + 1 "
+                    + "returning (xmax = 0) as inserido) "
+                    + "select count(*) filter (where inserido) as inseridos, count(*) filter (where not inserido) as atualizados from gravados");
+            //ids explícitos não avançam a identity: sincroniza antes de gerar ids para as linhas sem idProduto,
+            //só para frente (ids já entregues acima do maior id atual, ex.: produtos excluídos, não são reutilizados)
+            String sequencia = jdbcTemplate.queryForObject("select pg_get_serial_sequence('produtos', 'id_produto')", String.class);
+            jdbcTemplate.queryForObject("select setval(?::regclass, greatest((select last_value from " + sequencia + "), "
+                    + "(select max(id_produto) from produtos), 1))", Long.class, sequencia);
+            long novos = jdbcTemplate.update("insert into produtos (des_pro, qtde_produto, val_produto, versao) "
+                    + "select des_pro, qtde_produto, val_produto, 0 from produtos_import where erro is null and id_produto is null order by linha");
+
+            long inseridos = ((Number) upsert.get("inseridos")).longValue() + novos;
+            long atualizados = ((Number) upsert.get("atualizados")).longValue();
+            return new ImportResultDto(lidos, inseridos, atualizados, rejeitados, erros, 0, 0);
+        });
+        long tempoMs = (System.nanoTime() - inicio) / 1_000_000;
+        resultado.setTempoMs(tempoMs);
+        resultado.setRegistrosPorSegundo(tempoMs == 0 ? resultado.getLidos() : resultado.getLidos() * 1000.0 / tempoMs);
+        log.info("ProdutoService::importar {} linhas ({} inseridas, {} atualizadas, {} rejeitadas) em {} ms ({} registros/s)",
+                resultado.getLidos(), resultado.getInseridos(), resultado.getAtualizados(), resultado.getRejeitados(),
+                tempoMs, (long) resultado.getRegistrosPorSegundo());
+        return resultado;
     }
 
     /**
      * Deleta um produto com base no identificador informado.
+     * A entrada do cache é removida no commit da transação.
      *
      * @param id ID do produto a ser deletado
      */
     @Override
     @Transactional(rollbackFor = Throwable.class)
+    @CacheEvict(cacheNames = CacheConfig.PRODUTOS, key = "#id")
     public void delete(Integer id) {
-        log.info("ProdutoService::delete");
-        log.debug("Valores: {}", id);
-        // Implementação do método de deleção
+        log.debug("ProdutoService::delete - Valores: {}", id);
+        produtoRepository.delete(findById(id));
+    }
+
+    /**
+     * Coloca o produto no cache após o commit (como o @CachePut pelo TransactionAwareCacheManagerProxy),
+     * mas só se a versão for mais nova que a do cache: reservas concorrentes do mesmo produto podem
+     * chegar aqui fora da ordem dos commits e não podem deixar uma quantidade antiga no cache.
+     */
+    @SuppressWarnings("unchecked")
+    private void atualizarCache(ProdutoDto produto) {
+        Map<Object, ProdutoDto> cache = ((com.github.benmanes.caffeine.cache.Cache<Object, ProdutoDto>)
+                cacheManager.getCache(CacheConfig.PRODUTOS).getNativeCache()).asMap();
+        Runnable put = () -> cache.merge(produto.getIdProduto().intValue(), produto,
+                (atual, novo) -> atual.getVersao() != null && atual.getVersao() >= novo.getVersao() ? atual : novo);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            put.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                put.run();
+            }
+        });
+    }
+
+    private ProdutoModel findById(Integer id) {
+        return produtoRepository.findById(id.longValue())
+                .orElseThrow(() -> new NotFoundException("Produto não encontrado: " + id));
     }
-}
\ No newline at end of file
+}
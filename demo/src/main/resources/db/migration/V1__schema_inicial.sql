@@ -0,0 +1,36 @@
+-- Schema inicial (antes gerado pelo Hibernate com generate-ddl).
+-- Compativel com PostgreSQL e com o H2 em modo PostgreSQL usado nos testes.
+
+-- Sequences com incremento = allocationSize (50) das entidades: o Hibernate reserva blocos de ids
+create sequence pedidos_seq start with 1 increment by 50;
+create sequence itens_pedido_seq start with 1 increment by 50;
+
+create table produtos (
+    id_produto   bigint generated by default as identity primary key,
+    des_pro      varchar(255),
+    qtde_produto double precision,
+    val_produto  numeric(15, 2),
+    versao       bigint default 0
+);
+
+create table pedidos (
+    nro_pedido  bigint primary key,
+    data_pedido timestamp(6) not null,
+    versao      bigint default 0
+);
+
+-- Antes "itens-pedido": o hifen obrigava o uso de aspas em todo SQL escrito a mao
+create table itens_pedido (
+    id          integer primary key,
+    qtde_item   integer,
+    val_unidade numeric(15, 2),
+    id_produto  bigint,
+    nro_pedido  bigint,
+    constraint fk_itens_pedido_pedido foreign key (nro_pedido) references pedidos (nro_pedido)
+);
+
+-- Filtros/ordenacao por periodo (data_pedido between ...)
+create index idx_pedidos_data_pedido on pedidos (data_pedido);
+
+-- Itens por pedido (IN da pagina, entity graph, total do pedido, delete em cascata) ja ordenados pelo id
+create index idx_itens_pedido_nro_pedido on itens_pedido (nro_pedido, id);
@@ -0,0 +1,3 @@
+-- Busca de pedidos por produto (GET api/pedidos/busca?idProduto=): EXISTS em itens_pedido por id_produto,
+-- correlacionado pelo nro_pedido, resolvido so pelo indice
+create index idx_itens_pedido_id_produto on itens_pedido (id_produto, nro_pedido);
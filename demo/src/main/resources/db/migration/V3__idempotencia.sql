@@ -0,0 +1,13 @@
+-- Chaves de idempotencia do POST api/pedidos (application.idempotency.store=jdbc)
+-- status nulo = requisicao em andamento; linhas expiram por criado_em (application.idempotency.ttl)
+create table idempotencia (
+    chave        varchar(300) primary key,
+    hash_corpo   varchar(64)  not null,
+    status       integer,
+    content_type varchar(255),
+    location     varchar(2048),
+    corpo        bytea,
+    criado_em    timestamp(6) not null
+);
+
+create index idx_idempotencia_criado_em on idempotencia (criado_em);
@@ -0,0 +1,3 @@
+-- Prazo da reserva em andamento (status nulo): vencido, uma nova tentativa com a chave assume o processamento
+-- (instancia que caiu no meio da requisicao nao prende a chave ate o TTL)
+alter table idempotencia add column reservado_ate timestamp(6);
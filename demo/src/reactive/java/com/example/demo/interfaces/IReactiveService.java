@@ -0,0 +1,40 @@
+package com.example.demo.interfaces;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Contraparte não bloqueante de IService (perfil reactive, R2DBC): as mesmas operações,
+ * retornando Mono/Flux em vez de T/List<T>.
+ *
+ * @param <T> - DTO
+ * @param <N>  - Integer
+ */
+public interface IReactiveService<T, N> {
+
+    public Mono<T> create(T entity);
+
+    /**
+     * @param id
+     * @return registro ou erro NotFoundException
+     */
+    public Mono<T> read(N id);
+
+    /**
+     * Leitura paginada por keyset, como IService.read(after, limit)
+     * @param after último identificador da página anterior (nulo = primeira página)
+     * @param limit tamanho da página (limitado a IService.MAX_PAGE_SIZE)
+     * @return
+     */
+    public Flux<T> read(N after, int limit);
+
+    /**
+     * Todos os registros, ordenados pelo identificador, com backpressure até o banco
+     * @return
+     */
+    public Flux<T> stream();
+
+    public Mono<T> update(N id, T entity);
+
+    public Mono<Void> delete(N id);
+}
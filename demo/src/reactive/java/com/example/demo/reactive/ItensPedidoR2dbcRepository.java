@@ -0,0 +1,48 @@
+package com.example.demo.reactive;
+
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+
+public interface ItensPedidoR2dbcRepository extends R2dbcRepository<ItensPedidoRow, Integer> {
+
+    /**
+     * Keyset: próxima página de itens a partir do último id
+     */
+    @Query("select * from itens_pedido where id > :after order by id limit :limit")
+    Flux<ItensPedidoRow> findPage(int after, int limit);
+
+    Flux<ItensPedidoRow> findAllByOrderById();
+
+    /**
+     * Itens de vários pedidos em uma única consulta IN (evita N+1)
+     */
+    Flux<ItensPedidoRow> findByNroPedidoInOrderByNroPedidoAscIdAsc(Collection<Long> nroPedidos);
+
+    /**
+     * Próximo valor da sequence usada também pelo Hibernate (ver PedidoR2dbcRepository.nextNroPedido)
+     */
+    @Query("select nextval('itens_pedido_seq')")
+    Mono<Long> nextId();
+
+    /**
+     * PUT: grava todos os campos do item
+     */
+    @Modifying
+    @Query("update itens_pedido set qtde_item = :qtdeItem, val_unidade = :valUnidade, id_produto = :idProduto, "
+            + "nro_pedido = :nroPedido where id = :id")
+    Mono<Integer> atualizar(int id, Integer qtdeItem, BigDecimal valUnidade, Long idProduto, Long nroPedido);
+
+    @Modifying
+    @Query("delete from itens_pedido where id = :id")
+    Mono<Integer> excluir(int id);
+
+    @Modifying
+    @Query("delete from itens_pedido where nro_pedido = :nroPedido")
+    Mono<Integer> excluirPorPedido(long nroPedido);
+}
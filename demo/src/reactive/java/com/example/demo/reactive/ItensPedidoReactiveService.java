@@ -0,0 +1,113 @@
+package com.example.demo.reactive;
+
+import com.example.demo.Dto.ItensPedidoDto;
+import com.example.demo.exception.NotFoundException;
+import com.example.demo.interfaces.IReactiveService;
+import com.example.demo.interfaces.IService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Itens de pedido pelo R2DBC (perfil reactive): mesmas regras de ItensPedidoService,
+ * inclusive o incremento da versão dos pedidos afetados.
+ */
+@Service
+@Slf4j
+@Profile("reactive")
+public class ItensPedidoReactiveService implements IReactiveService<ItensPedidoDto, Integer> {
+
+    @Autowired
+    ItensPedidoR2dbcRepository itensPedidoRepository;
+
+    @Autowired
+    PedidoR2dbcRepository pedidoRepository;
+
+    @Autowired
+    R2dbcEntityTemplate r2dbcEntityTemplate;
+
+    @Autowired
+    TransactionalOperator transactionalOperator;
+
+    @Override
+    public Mono<ItensPedidoDto> create(ItensPedidoDto entity) {
+        log.debug("ItensPedidoReactiveService::create - Valores: {}", entity);
+        return inserir(entity, entity.getNroPedido())
+                .flatMap(item -> alterouPedidos(item.getNroPedido()).thenReturn(toDto(item)))
+                .as(transactionalOperator::transactional);
+    }
+
+    @Override
+    public Mono<ItensPedidoDto> read(Integer id) {
+        log.debug("ItensPedidoReactiveService::read(id) - Valores: {}", id);
+        return findById(id).map(ItensPedidoReactiveService::toDto);
+    }
+
+    @Override
+    public Flux<ItensPedidoDto> read(Integer after, int limit) {
+        log.debug("ItensPedidoReactiveService::read(after, limit) - Valores: {} e {}", after, limit);
+        return itensPedidoRepository.findPage(after == null ? 0 : after, IService.pageSize(limit))
+                .map(ItensPedidoReactiveService::toDto);
+    }
+
+    @Override
+    public Flux<ItensPedidoDto> stream() {
+        log.debug("ItensPedidoReactiveService::stream");
+        return itensPedidoRepository.findAllByOrderById().map(ItensPedidoReactiveService::toDto);
+    }
+
+    @Override
+    public Mono<ItensPedidoDto> update(Integer id, ItensPedidoDto entity) {
+        log.debug("ItensPedidoReactiveService::update - Valores: {} e {}", id, entity);
+        return findById(id)
+                .flatMap(anterior -> itensPedidoRepository.atualizar(id, entity.getQtdeItem(), entity.getValUnidade(),
+                                entity.getIdProduto(), entity.getNroPedido())
+                        .then(alterouPedidos(anterior.getNroPedido(), entity.getNroPedido())))
+                .then(read(id))
+                .as(transactionalOperator::transactional);
+    }
+
+    @Override
+    public Mono<Void> delete(Integer id) {
+        log.debug("ItensPedidoReactiveService::delete - Valores: {}", id);
+        return findById(id)
+                .flatMap(item -> itensPedidoRepository.excluir(id).then(alterouPedidos(item.getNroPedido())))
+                .as(transactionalOperator::transactional);
+    }
+
+    /**
+     * Insere o item com id da sequence itens_pedido_seq (INSERT explícito: com o id preenchido, save faria UPDATE)
+     */
+    Mono<ItensPedidoRow> inserir(ItensPedidoDto dto, Long nroPedido) {
+        return itensPedidoRepository.nextId()
+                .flatMap(id -> r2dbcEntityTemplate.insert(new ItensPedidoRow(id.intValue(), dto.getQtdeItem(),
+                        dto.getValUnidade(), dto.getIdProduto(), nroPedido)));
+    }
+
+    static ItensPedidoDto toDto(ItensPedidoRow row) {
+        return new ItensPedidoDto(row.getId(), row.getQtdeItem(), row.getValUnidade(), row.getIdProduto(), row.getNroPedido());
+    }
+
+    private Mono<ItensPedidoRow> findById(Integer id) {
+        return itensPedidoRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new NotFoundException("Item do pedido não encontrado: " + id)));
+    }
+
+    /**
+     * Itens alterados mudam a representação do pedido: incrementa a versão (ETag) dos pedidos afetados
+     */
+    private Mono<Void> alterouPedidos(Long... nroPedidos) {
+        Set<Long> nros = Stream.of(nroPedidos).filter(Objects::nonNull).collect(Collectors.toSet());
+        return nros.isEmpty() ? Mono.empty() : pedidoRepository.incrementarVersao(nros).then();
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.demo.reactive;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.math.BigDecimal;
+
+/**
+ * Linha da tabela itens_pedido para o R2DBC (a entidade JPA é ItensPedidoModel)
+ */
+@Table("itens_pedido")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItensPedidoRow {
+
+    @Id
+    private Integer id;
+    private Integer qtdeItem;
+    private BigDecimal valUnidade;
+    private Long idProduto;
+    private Long nroPedido;
+}
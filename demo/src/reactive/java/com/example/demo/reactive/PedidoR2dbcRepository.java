@@ -0,0 +1,43 @@
+package com.example.demo.reactive;
+
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+public interface PedidoR2dbcRepository extends R2dbcRepository<PedidoRow, Long> {
+
+    /**
+     * Keyset: próxima página de pedidos a partir do último nroPedido
+     */
+    @Query("select * from pedidos where nro_pedido > :after order by nro_pedido limit :limit")
+    Flux<PedidoRow> findPage(long after, int limit);
+
+    Flux<PedidoRow> findAllByOrderByNroPedido();
+
+    /**
+     * Próximo valor da sequence usada também pelo Hibernate (pooled, incremento 50): o valor retornado
+     * fica fora de qualquer bloco já reservado pelo stack JPA
+     */
+    @Query("select nextval('pedidos_seq')")
+    Mono<Long> nextNroPedido();
+
+    @Modifying
+    @Query("update pedidos set data_pedido = :datPedido, versao = versao + 1 where nro_pedido = :nroPedido")
+    Mono<Integer> atualizar(long nroPedido, LocalDateTime datPedido);
+
+    /**
+     * Incrementa a versão dos pedidos cujos itens foram alterados
+     */
+    @Modifying
+    @Query("update pedidos set versao = versao + 1 where nro_pedido in (:nroPedidos)")
+    Mono<Integer> incrementarVersao(Collection<Long> nroPedidos);
+
+    @Modifying
+    @Query("delete from pedidos where nro_pedido = :nroPedido")
+    Mono<Integer> excluir(long nroPedido);
+}
@@ -0,0 +1,197 @@
+package com.example.demo.reactive;
+
+import com.example.demo.Dto.ItensPedidoDto;
+import com.example.demo.Dto.PedidoDto;
+import com.example.demo.exception.NotFoundException;
+import com.example.demo.interfaces.IReactiveService;
+import com.example.demo.interfaces.IService;
+import com.example.demo.mapper.PedidoMapper;
+import com.example.demo.service.DiferencaEstoque;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pedidos pelo R2DBC (perfil reactive): mesmas regras de PedidoService (reserva de estoque na criação,
+ * PUT substitui os itens, itens carregados por página com uma consulta IN).
+ */
+@Service
+@Slf4j
+@Profile("reactive")
+public class PedidoReactiveService implements IReactiveService<PedidoDto, Integer> {
+
+    /**
+     * Pedidos por consulta IN de itens no stream
+     */
+    private static final int STREAM_BLOCO = 100;
+
+    @Autowired
+    PedidoR2dbcRepository pedidoRepository;
+
+    @Autowired
+    ItensPedidoR2dbcRepository itensPedidoRepository;
+
+    @Autowired
+    ItensPedidoReactiveService itensPedidoService;
+
+    @Autowired
+    ProdutoReactiveService produtoService;
+
+    @Autowired
+    PedidoMapper pedidoMapper;
+
+    @Autowired
+    R2dbcEntityTemplate r2dbcEntityTemplate;
+
+    @Autowired
+    TransactionalOperator transactionalOperator;
+
+    /**
+     * Cria o pedido e os itens na mesma transação, reservando o estoque antes
+     * (produtos em ordem de ID, como no PedidoService, para não inverter a ordem dos locks).
+     */
+    @Override
+    public Mono<PedidoDto> create(PedidoDto entity) {
+        log.debug("PedidoReactiveService::create - Valores: {}", entity);
+        LocalDateTime datPedido = pedidoMapper.toLocalDateTime(entity.getDatPedido());
+        return reservarEstoque(entity.getItensPedido())
+                .then(pedidoRepository.nextNroPedido())
+                .flatMap(nroPedido -> r2dbcEntityTemplate.insert(new PedidoRow(nroPedido, datPedido, 0L)))
+                .flatMap(pedido -> inserirItens(entity.getItensPedido(), pedido.getNroPedido())
+                        .map(ItensPedidoReactiveService::toDto)
+                        .collectList()
+                        .map(itens -> {
+                            PedidoDto dto = new PedidoDto(pedido.getNroPedido(), pedido.getDatPedido(), pedido.getVersao());
+                            dto.getItensPedido().addAll(itens);
+                            return dto;
+                        }))
+                .as(transactionalOperator::transactional);
+    }
+
+    @Override
+    public Mono<PedidoDto> read(Integer id) {
+        log.debug("PedidoReactiveService::read(id) - Valores: {}", id);
+        return findById(id).flatMap(pedido -> comItens(List.of(pedido)).next());
+    }
+
+    @Override
+    public Flux<PedidoDto> read(Integer after, int limit) {
+        log.debug("PedidoReactiveService::read(after, limit) - Valores: {} e {}", after, limit);
+        return pedidoRepository.findPage(after == null ? 0L : after, IService.pageSize(limit))
+                .collectList()
+                .flatMapMany(this::comItens);
+    }
+
+    /**
+     * Todos os pedidos em blocos de STREAM_BLOCO, cada bloco com uma consulta IN para os itens
+     */
+    @Override
+    public Flux<PedidoDto> stream() {
+        log.debug("PedidoReactiveService::stream");
+        return pedidoRepository.findAllByOrderByNroPedido()
+                .buffer(STREAM_BLOCO)
+                .concatMap(this::comItens);
+    }
+
+    /**
+     * PUT: grava a data (incrementando a versão) e, se itensPedido vier preenchido, substitui os itens,
+     * reservando ou devolvendo só a diferença de estoque entre os itens atuais e os novos
+     */
+    @Override
+    public Mono<PedidoDto> update(Integer id, PedidoDto entity) {
+        log.debug("PedidoReactiveService::update - Valores: {} e {}", id, entity);
+        Mono<Void> itens = entity.getItensPedido() == null
+                ? Mono.empty()
+                : ajustarEstoque(id, entity.getItensPedido())
+                        .then(itensPedidoRepository.excluirPorPedido(id))
+                        .thenMany(inserirItens(entity.getItensPedido(), id.longValue()))
+                        .then();
+        return findById(id)
+                .flatMap(pedido -> pedidoRepository.atualizar(id, pedidoMapper.toLocalDateTime(entity.getDatPedido())))
+                .then(itens)
+                .then(read(id))
+                .as(transactionalOperator::transactional);
+    }
+
+    /**
+     * Exclui o pedido e os itens, devolvendo ao estoque as quantidades reservadas
+     */
+    @Override
+    public Mono<Void> delete(Integer id) {
+        log.debug("PedidoReactiveService::delete - Valores: {}", id);
+        return findById(id)
+                .flatMap(pedido -> ajustarEstoque(id, List.of())
+                        .then(itensPedidoRepository.excluirPorPedido(id))
+                        .then(pedidoRepository.excluir(id)))
+                .then()
+                .as(transactionalOperator::transactional);
+    }
+
+    private Mono<PedidoRow> findById(Integer id) {
+        return pedidoRepository.findById(id.longValue())
+                .switchIfEmpty(Mono.error(() -> new NotFoundException("Pedido não encontrado: " + id)));
+    }
+
+    private Mono<Void> reservarEstoque(List<ItensPedidoDto> itens) {
+        return aplicar(diferenca(itens));
+    }
+
+    /**
+     * Lê os itens atuais do pedido e aplica a diferença para os novos (lista vazia devolve tudo)
+     */
+    private Mono<Void> ajustarEstoque(Integer nroPedido, List<ItensPedidoDto> novos) {
+        DiferencaEstoque diferenca = diferenca(novos);
+        return itensPedidoRepository.findByNroPedidoInOrderByNroPedidoAscIdAsc(List.of(nroPedido.longValue()))
+                .doOnNext(atual -> diferenca.remover(atual.getIdProduto(), atual.getQtdeItem()))
+                .then(Mono.defer(() -> aplicar(diferenca)));
+    }
+
+    private static DiferencaEstoque diferenca(List<ItensPedidoDto> itens) {
+        DiferencaEstoque diferenca = new DiferencaEstoque();
+        if (itens != null) {
+            itens.forEach(item -> diferenca.adicionar(item.getIdProduto(), item.getQtdeItem()));
+        }
+        return diferenca;
+    }
+
+    /**
+     * Reserva ou devolve por produto, em ordem de ID como no PedidoService (sem inverter a ordem dos locks)
+     */
+    private Mono<Void> aplicar(DiferencaEstoque diferenca) {
+        return Flux.fromIterable(diferenca.porProduto().entrySet())
+                .concatMap(produto -> produto.getValue() > 0
+                        ? produtoService.reservar(produto.getKey(), produto.getValue())
+                        : produto.getValue() < 0
+                                ? produtoService.liberar(produto.getKey(), -produto.getValue())
+                                : Mono.<Void>empty())
+                .then();
+    }
+
+    private Flux<ItensPedidoRow> inserirItens(List<ItensPedidoDto> itens, Long nroPedido) {
+        return itens == null ? Flux.empty() : Flux.fromIterable(itens).concatMap(item -> itensPedidoService.inserir(item, nroPedido));
+    }
+
+    /**
+     * Preenche os itens de uma página de pedidos com uma única consulta IN (evita N+1)
+     */
+    private Flux<PedidoDto> comItens(List<PedidoRow> pedidos) {
+        if (pedidos.isEmpty()) {
+            return Flux.empty();
+        }
+        Map<Long, PedidoDto> porNroPedido = new LinkedHashMap<>(pedidos.size() * 2);
+        pedidos.forEach(pedido -> porNroPedido.put(pedido.getNroPedido(), new PedidoDto(pedido.getNroPedido(), pedido.getDatPedido(), pedido.getVersao())));
+        return itensPedidoRepository.findByNroPedidoInOrderByNroPedidoAscIdAsc(porNroPedido.keySet())
+                .doOnNext(item -> porNroPedido.get(item.getNroPedido()).getItensPedido().add(ItensPedidoReactiveService.toDto(item)))
+                .thenMany(Flux.fromIterable(porNroPedido.values()));
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.demo.reactive;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+
+/**
+ * Linha da tabela pedidos para o R2DBC (a entidade JPA é PedidoModel)
+ */
+@Table("pedidos")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PedidoRow {
+
+    @Id
+    private Long nroPedido;
+
+    @Column("data_pedido")
+    private LocalDateTime datPedido;
+
+    private Long versao;
+}
@@ -0,0 +1,50 @@
+package com.example.demo.reactive;
+
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+
+public interface ProdutoR2dbcRepository extends R2dbcRepository<ProdutoRow, Long> {
+
+    /**
+     * Keyset: próxima página de produtos a partir do último idProduto
+     */
+    @Query("select * from produtos where id_produto > :after order by id_produto limit :limit")
+    Flux<ProdutoRow> findPage(long after, int limit);
+
+    Flux<ProdutoRow> findAllByOrderByIdProduto();
+
+    /**
+     * PUT: grava todos os campos e incrementa a versão, só se a versão ainda for a lida pelo cliente
+     * @return 0 se o produto não existir ou tiver sido alterado
+     */
+    @Modifying
+    @Query("update produtos set des_pro = :desPro, qtde_produto = :qtdeProduto, val_produto = :valProduto, "
+            + "versao = versao + 1 where id_produto = :idProduto and versao = :versao")
+    Mono<Integer> atualizar(long idProduto, String desPro, Double qtdeProduto, BigDecimal valProduto, long versao);
+
+    /**
+     * Reserva de estoque condicional, como ProdutoRepository.reservar
+     * @return 0 se o estoque for insuficiente ou o produto não existir
+     */
+    @Modifying
+    @Query("update produtos set qtde_produto = qtde_produto - :qtde, versao = versao + 1 "
+            + "where id_produto = :idProduto and qtde_produto >= :qtde")
+    Mono<Integer> reservar(long idProduto, double qtde);
+
+    /**
+     * Devolve quantidade ao estoque, como ProdutoRepository.liberar
+     */
+    @Modifying
+    @Query("update produtos set qtde_produto = qtde_produto + :qtde, versao = versao + 1 "
+            + "where id_produto = :idProduto")
+    Mono<Integer> liberar(long idProduto, double qtde);
+
+    @Modifying
+    @Query("delete from produtos where id_produto = :idProduto")
+    Mono<Integer> excluir(long idProduto);
+}
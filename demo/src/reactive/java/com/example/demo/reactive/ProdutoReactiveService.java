@@ -0,0 +1,113 @@
+package com.example.demo.reactive;
+
+import com.example.demo.Dto.ProdutoDto;
+import com.example.demo.exception.ConflictException;
+import com.example.demo.exception.CustomHttpException;
+import com.example.demo.exception.NotFoundException;
+import com.example.demo.interfaces.IReactiveService;
+import com.example.demo.interfaces.IService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Produtos pelo R2DBC (perfil reactive): mesmas regras de ProdutoService, sem bloquear threads.
+ * Não usa o cache "produtos" do stack JPA.
+ */
+@Service
+@Slf4j
+@Profile("reactive")
+public class ProdutoReactiveService implements IReactiveService<ProdutoDto, Integer> {
+
+    @Autowired
+    ProdutoR2dbcRepository produtoRepository;
+
+    @Autowired
+    TransactionalOperator transactionalOperator;
+
+    @Override
+    public Mono<ProdutoDto> create(ProdutoDto entity) {
+        log.debug("ProdutoReactiveService::create - Valores: {}", entity);
+        return produtoRepository.save(new ProdutoRow(null, entity.getDesPro(), entity.getQtdeProduto(), entity.getValProduto(), 0L))
+                .map(ProdutoReactiveService::toDto)
+                .as(transactionalOperator::transactional);
+    }
+
+    @Override
+    public Mono<ProdutoDto> read(Integer id) {
+        log.debug("ProdutoReactiveService::read(id) - Valores: {}", id);
+        return produtoRepository.findById(id.longValue())
+                .map(ProdutoReactiveService::toDto)
+                .switchIfEmpty(Mono.error(() -> new NotFoundException("Produto não encontrado: " + id)));
+    }
+
+    @Override
+    public Flux<ProdutoDto> read(Integer after, int limit) {
+        log.debug("ProdutoReactiveService::read(after, limit) - Valores: {} e {}", after, limit);
+        return produtoRepository.findPage(after == null ? 0L : after.longValue(), IService.pageSize(limit))
+                .map(ProdutoReactiveService::toDto);
+    }
+
+    @Override
+    public Flux<ProdutoDto> stream() {
+        log.debug("ProdutoReactiveService::stream");
+        return produtoRepository.findAllByOrderByIdProduto().map(ProdutoReactiveService::toDto);
+    }
+
+    @Override
+    public Mono<ProdutoDto> update(Integer id, ProdutoDto entity) {
+        log.debug("ProdutoReactiveService::update - Valores: {} e {}", id, entity);
+        if (entity.getVersao() == null) {
+            return Mono.error(new CustomHttpException("Informe a versão do produto lida antes da alteração"));
+        }
+        return produtoRepository.atualizar(id.longValue(), entity.getDesPro(), entity.getQtdeProduto(), entity.getValProduto(), entity.getVersao())
+                .flatMap(alterados -> alterados == 0
+                        ? read(id).then(Mono.<ProdutoDto>error(new ConflictException("Produto alterado concorrentemente: " + id)))
+                        : read(id))
+                .as(transactionalOperator::transactional);
+    }
+
+    /**
+     * Reserva estoque com um UPDATE condicional; participa da transação de quem assina (ex.: criação do pedido).
+     *
+     * @param idProduto ID do produto
+     * @param qtde quantidade a reservar
+     * @return vazio, ou erro ConflictException se o estoque for insuficiente ou o produto não existir
+     */
+    public Mono<Void> reservar(Long idProduto, double qtde) {
+        log.debug("ProdutoReactiveService::reservar - Valores: {} e {}", idProduto, qtde);
+        return produtoRepository.reservar(idProduto, qtde)
+                .flatMap(alterados -> alterados == 0
+                        ? Mono.error(new ConflictException("Estoque insuficiente para o produto: " + idProduto))
+                        : Mono.empty());
+    }
+
+    /**
+     * Devolve estoque (itens removidos ou reduzidos de um pedido); participa da transação de quem assina.
+     *
+     * @param idProduto ID do produto
+     * @param qtde quantidade a devolver
+     */
+    public Mono<Void> liberar(Long idProduto, double qtde) {
+        log.debug("ProdutoReactiveService::liberar - Valores: {} e {}", idProduto, qtde);
+        return produtoRepository.liberar(idProduto, qtde).then();
+    }
+
+    @Override
+    public Mono<Void> delete(Integer id) {
+        log.debug("ProdutoReactiveService::delete - Valores: {}", id);
+        return produtoRepository.excluir(id.longValue())
+                .flatMap(alterados -> alterados == 0
+                        ? Mono.<Void>error(new NotFoundException("Produto não encontrado: " + id))
+                        : Mono.empty())
+                .as(transactionalOperator::transactional);
+    }
+
+    private static ProdutoDto toDto(ProdutoRow row) {
+        return new ProdutoDto(row.getIdProduto(), row.getDesPro(), row.getQtdeProduto(), row.getValProduto(), row.getVersao());
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.demo.reactive;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.math.BigDecimal;
+
+/**
+ * Linha da tabela produtos para o R2DBC (a entidade JPA é ProdutoModel)
+ */
+@Table("produtos")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProdutoRow {
+
+    @Id
+    private Long idProduto;
+    private String desPro;
+    private Double qtdeProduto;
+    private BigDecimal valProduto;
+    private Long versao;
+}
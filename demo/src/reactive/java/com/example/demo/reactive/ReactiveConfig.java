@@ -0,0 +1,90 @@
+package com.example.demo.reactive;
+
+import com.example.demo.Dto.ItensPedidoDto;
+import com.example.demo.Dto.PedidoDto;
+import com.example.demo.Dto.ProdutoDto;
+import com.example.demo.interfaces.IReactiveService;
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.web.reactive.function.server.RequestPredicates;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ServerWebInputException;
+
+/**
+ * Stack reativo (perfil reactive, build com -Preactive): rotas WebFlux com os mesmos caminhos e
+ * verbos do CRUD MVC (GET por ID, página por keyset, /stream, POST, PUT e DELETE), servidas pelos
+ * IReactiveService sobre R2DBC.
+ */
+@Configuration
+@Profile("reactive")
+public class ReactiveConfig {
+
+    /**
+     * Transações R2DBC. O R2dbcTransactionManager não é publicado como bean: com dois TransactionManager
+     * no contexto (JPA e R2DBC), os @Transactional do stack JPA deixariam de achar o gerenciador padrão.
+     */
+    @Bean
+    public TransactionalOperator transactionalOperator(ConnectionFactory connectionFactory) {
+        return TransactionalOperator.create(new R2dbcTransactionManager(connectionFactory));
+    }
+
+    @Bean
+    public RouterFunction<ServerResponse> produtoRoutes(ProdutoReactiveService produtoService) {
+        return crud("/api/produtos", produtoService, ProdutoDto.class);
+    }
+
+    @Bean
+    public RouterFunction<ServerResponse> pedidoRoutes(PedidoReactiveService pedidoService) {
+        return crud("/api/pedidos", pedidoService, PedidoDto.class);
+    }
+
+    @Bean
+    public RouterFunction<ServerResponse> itensPedidoRoutes(ItensPedidoReactiveService itensPedidoService) {
+        return crud("/api/itens", itensPedidoService, ItensPedidoDto.class);
+    }
+
+    private static <T> RouterFunction<ServerResponse> crud(String path, IReactiveService<T, Integer> service, Class<T> tipo) {
+        return RouterFunctions.route()
+                .path(path, rotas -> rotas
+                        .GET("/stream", request -> ServerResponse.ok()
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .body(service.stream(), tipo))
+                        .GET("/{id}", request -> ServerResponse.ok()
+                                .body(service.read(id(request)), tipo))
+                        .GET("", request -> ServerResponse.ok()
+                                .body(service.read(inteiro(request.queryParam("after").orElse(null), "after"),
+                                        inteiro(request.queryParam("limit").orElse("100"), "limit")), tipo))
+                        .POST("", RequestPredicates.contentType(MediaType.APPLICATION_JSON), request -> request.bodyToMono(tipo)
+                                .flatMap(service::create)
+                                .flatMap(dto -> ServerResponse.ok().bodyValue(dto)))
+                        .PUT("/{id}", RequestPredicates.contentType(MediaType.APPLICATION_JSON), request -> request.bodyToMono(tipo)
+                                .flatMap(entity -> service.update(id(request), entity))
+                                .flatMap(dto -> ServerResponse.ok().bodyValue(dto)))
+                        .DELETE("/{id}", request -> service.delete(id(request))
+                                .then(ServerResponse.ok().build())))
+                .build();
+    }
+
+    private static Integer id(ServerRequest request) {
+        return inteiro(request.pathVariable("id"), "id");
+    }
+
+    private static Integer inteiro(String valor, String nome) {
+        if (valor == null) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(valor);
+        } catch (NumberFormatException e) {
+            throw new ServerWebInputException("Parâmetro inválido: " + nome);
+        }
+    }
+}
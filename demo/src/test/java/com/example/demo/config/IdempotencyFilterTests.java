@@ -0,0 +1,79 @@
+package com.example.demo.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.util.unit.DataSize;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Repetição do POST api/pedidos com a mesma Idempotency-Key devolve a resposta guardada.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:idempotencia;MODE=PostgreSQL;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class IdempotencyFilterTests {
+
+	private static final String PEDIDO = "{\"datPedido\":\"2024-10-04T12:00:00.000+00:00\",\"itensPedido\":[]}";
+
+	@Autowired
+	MockMvc mockMvc;
+
+	@Test
+	void retryReturnsStoredResponse() throws Exception {
+		MvcResult primeira = mockMvc.perform(post("/api/pedidos")
+						.header(IdempotencyFilter.HEADER, "pedido-1")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(PEDIDO))
+				.andExpect(status().isOk())
+				.andReturn();
+		MvcResult repetida = mockMvc.perform(post("/api/pedidos")
+						.header(IdempotencyFilter.HEADER, "pedido-1")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(PEDIDO))
+				.andExpect(status().isOk())
+				.andReturn();
+
+		assertNull(primeira.getResponse().getHeader(IdempotencyFilter.REPLAYED_HEADER));
+		assertEquals("true", repetida.getResponse().getHeader(IdempotencyFilter.REPLAYED_HEADER));
+		assertEquals(primeira.getResponse().getContentAsString(), repetida.getResponse().getContentAsString());
+	}
+
+	@Test
+	void bodyAboveLimitIsRejected() throws Exception {
+		byte[] corpo = new byte[(int) DataSize.ofMegabytes(1).toBytes() + 1];
+		Arrays.fill(corpo, (byte) ' ');
+
+		mockMvc.perform(post("/api/pedidos")
+						.header(IdempotencyFilter.HEADER, "pedido-grande")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(corpo))
+				.andExpect(status().isPayloadTooLarge());
+	}
+
+	@Test
+	void sameKeyWithOtherBodyIsRejected() throws Exception {
+		mockMvc.perform(post("/api/pedidos")
+						.header(IdempotencyFilter.HEADER, "pedido-2")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(PEDIDO))
+				.andExpect(status().isOk());
+
+		mockMvc.perform(post("/api/pedidos")
+						.header(IdempotencyFilter.HEADER, "pedido-2")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"itensPedido\":[]}"))
+				.andExpect(status().isUnprocessableEntity());
+	}
+}
@@ -0,0 +1,92 @@
+package com.example.demo.config;
+
+import com.example.demo.service.IdempotencyStore;
+import com.example.demo.service.JdbcIdempotencyStore;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Contexto com application.idempotency.store=jdbc: sobe (inclusive a limpeza agendada) e guarda as respostas na tabela idempotencia,
+ * também com o auto-commit do pool desligado (perfil prod).
+ */
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:idempotencia_jdbc;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+		"application.idempotency.store=jdbc",
+		"spring.datasource.hikari.auto-commit=false" //como no perfil prod
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class JdbcIdempotencyStoreTests {
+
+	private static final String PEDIDO = "{\"datPedido\":\"2024-10-04T12:00:00.000+00:00\",\"itensPedido\":[]}";
+
+	@Autowired
+	MockMvc mockMvc;
+
+	@Autowired
+	IdempotencyStore idempotencyStore;
+
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	TransactionTemplate transactionTemplate;
+
+	@Test
+	void retryIsReplayedFromTable() throws Exception {
+		assertInstanceOf(JdbcIdempotencyStore.class, idempotencyStore);
+		for (int i = 0; i < 2; i++) {
+			mockMvc.perform(post("/api/pedidos")
+							.header(IdempotencyFilter.HEADER, "pedido-jdbc")
+							.contentType(MediaType.APPLICATION_JSON)
+							.content(PEDIDO))
+					.andExpect(status().isOk());
+		}
+		mockMvc.perform(post("/api/pedidos")
+						.header(IdempotencyFilter.HEADER, "pedido-jdbc")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(PEDIDO))
+				.andExpect(header().string(IdempotencyFilter.REPLAYED_HEADER, "true"));
+
+		assertEquals(1, jdbcTemplate.queryForObject("select count(*) from idempotencia where chave like '%pedido-jdbc'", Integer.class));
+		((JdbcIdempotencyStore) idempotencyStore).removerExpiradas();
+		assertEquals(1, jdbcTemplate.queryForObject("select count(*) from idempotencia where chave like '%pedido-jdbc'", Integer.class));
+	}
+
+	@Test
+	void expiredReservationIsTakenOver() throws Exception {
+		//instância que caiu no meio da requisição: reserva sem status, com o prazo vencido
+		LocalDateTime antes = LocalDateTime.now().minusMinutes(5);
+		transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(
+				"insert into idempotencia (chave, hash_corpo, criado_em, reservado_ate) values (?, ?, ?, ?)",
+				"POST /api/pedidos:pedido-orfao", DigestUtils.md5DigestAsHex(PEDIDO.getBytes(StandardCharsets.UTF_8)),
+				Timestamp.valueOf(antes), Timestamp.valueOf(antes.plusMinutes(1))));
+
+		mockMvc.perform(post("/api/pedidos")
+						.header(IdempotencyFilter.HEADER, "pedido-orfao")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(PEDIDO))
+				.andExpect(status().isOk())
+				.andExpect(header().doesNotExist(IdempotencyFilter.REPLAYED_HEADER));
+
+		assertEquals(200, jdbcTemplate.queryForObject("select status from idempotencia where chave = 'POST /api/pedidos:pedido-orfao'", Integer.class));
+	}
+}
@@ -0,0 +1,78 @@
+package com.example.demo.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Dois bancos H2 fazem o papel de primário e réplica: transações readOnly leem da réplica,
+ * as demais do primário; réplica atrasada sai do roteamento e as leituras voltam ao primário.
+ */
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:rw_primario;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+		"application.datasource.routing.enabled=true",
+		"application.datasource.routing.max-lag=5s",
+		"application.datasource.routing.check-interval=PT1H",
+		"application.datasource.routing.lag-query=select coalesce(max(segundos), 0) from atraso",
+		"application.datasource.routing.replicas[0].url=" + ReadWriteRoutingDataSourceTests.REPLICA_URL,
+		"application.datasource.routing.replicas[0].username=sa"
+})
+@ActiveProfiles("test")
+class ReadWriteRoutingDataSourceTests {
+
+	static final String REPLICA_URL = "jdbc:h2:mem:rw_replica;MODE=PostgreSQL;DB_CLOSE_DELAY=-1";
+
+	@Autowired
+	ReadWriteRoutingDataSource readWriteRoutingDataSource;
+
+	@Autowired
+	TransactionTemplate transactionTemplate;
+
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+
+	@BeforeEach
+	void setUp() throws SQLException {
+		atrasoDaReplica(0);
+	}
+
+	@Test
+	void readOnlyTransactionsGoToReplica() {
+		assertEquals("RW_REPLICA", banco(true));
+		assertEquals("RW_PRIMARIO", banco(false));
+	}
+
+	@Test
+	void laggingReplicaFallsBackToPrimary() throws SQLException {
+		atrasoDaReplica(60);
+
+		assertEquals("RW_PRIMARIO", banco(true));
+	}
+
+	private String banco(boolean readOnly) {
+		TransactionTemplate template = new TransactionTemplate(transactionTemplate.getTransactionManager());
+		template.setReadOnly(readOnly);
+		return template.execute(status -> jdbcTemplate.queryForObject("select database()", String.class)).toUpperCase();
+	}
+
+	private void atrasoDaReplica(int segundos) throws SQLException {
+		try (Connection connection = DriverManager.getConnection(REPLICA_URL, "sa", "");
+			 Statement statement = connection.createStatement()) {
+			statement.execute("create table if not exists atraso (segundos int)");
+			statement.execute("delete from atraso");
+			statement.execute("insert into atraso values (" + segundos + ")");
+		}
+		readWriteRoutingDataSource.verificarReplicas();
+	}
+}
@@ -0,0 +1,92 @@
+package com.example.demo.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Aplica as migrações do Flyway em um banco próprio (H2 em modo PostgreSQL) e confere,
+ * pelo EXPLAIN, que as consultas por período e por pedido usam os índices criados.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:migracoes;MODE=PostgreSQL;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("test")
+class SchemaMigrationTests {
+
+	private static final int PEDIDOS = 2000;
+	private static final int ITENS_POR_PEDIDO = 3;
+	private static final int PRODUTOS = 500;
+
+	@Autowired
+	Flyway flyway;
+
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+
+	@BeforeEach
+	void setUp() {
+		if (jdbcTemplate.queryForObject("select count(*) from pedidos", Integer.class) > 0) {
+			return;
+		}
+		LocalDateTime inicio = LocalDateTime.of(2024, 1, 1, 0, 0);
+		jdbcTemplate.batchUpdate("insert into pedidos (nro_pedido, data_pedido) values (?, ?)",
+				IntStream.rangeClosed(1, PEDIDOS)
+						.mapToObj(i -> new Object[]{(long) i, Timestamp.valueOf(inicio.plusHours(i))})
+						.toList());
+		jdbcTemplate.batchUpdate("insert into itens_pedido (id, qtde_item, val_unidade, id_produto, nro_pedido) values (?, 1, 10.00, ?, ?)",
+				IntStream.range(0, PEDIDOS * ITENS_POR_PEDIDO)
+						.mapToObj(i -> new Object[]{i + 1, (long) (i % PRODUTOS + 1), (long) (i / ITENS_POR_PEDIDO + 1)})
+						.toList());
+		jdbcTemplate.execute("analyze");
+	}
+
+	@Test
+	void migrationsAreApplied() {
+		assertEquals(0, flyway.info().pending().length);
+		assertNotNull(flyway.info().current());
+	}
+
+	@Test
+	void dateRangeUsesIndex() {
+		String plano = explain("select nro_pedido from pedidos "
+				+ "where data_pedido between timestamp '2024-01-10 00:00:00' and timestamp '2024-01-11 00:00:00'");
+
+		assertTrue(plano.contains("idx_pedidos_data_pedido"), plano);
+	}
+
+	@Test
+	void itemsByOrderUseIndex() {
+		String plano = explain("select id, qtde_item, val_unidade from itens_pedido where nro_pedido in (10, 20, 30) order by id");
+
+		// O H2 cria um indice proprio para a FK (nro_pedido) e pode escolhe-lo no lugar de
+		// idx_itens_pedido_nro_pedido; o que importa e que a busca por pedido nao varra a tabela
+		assertFalse(plano.contains("tablescan"), plano);
+		assertTrue(plano.contains("index") && plano.contains("nro_pedido in("), plano);
+	}
+
+	@Test
+	void itemsByProductUseIndex() {
+		String plano = explain("select nro_pedido from itens_pedido where id_produto = 42 and nro_pedido > 100");
+
+		assertTrue(plano.contains("idx_itens_pedido_id_produto"), plano);
+	}
+
+	private String explain(String sql) {
+		List<String> linhas = jdbcTemplate.queryForList("explain " + sql, String.class);
+		return linhas.stream().collect(Collectors.joining("\n")).toLowerCase();
+	}
+}
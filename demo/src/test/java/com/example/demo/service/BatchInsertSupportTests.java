@@ -0,0 +1,65 @@
+package com.example.demo.service;
+
+import com.example.demo.Dto.BatchResultDto;
+import com.example.demo.Dto.PedidoDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Iterator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:batch_insert;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+		"application.batch.chunk-size=2"
+})
+@ActiveProfiles("test")
+class BatchInsertSupportTests {
+
+	@Autowired
+	PedidoService pedidoService;
+
+	@Test
+	void failedChunkReportsWhatWasCommitted() {
+		BatchResultDto resultado = pedidoService.create(pedidos(4, 3));
+
+		assertEquals(2, resultado.getRegistros());
+		assertEquals(1, resultado.getLotes());
+		assertTrue(resultado.getErro().startsWith("Lote 2 não gravado: "), resultado.getErro());
+		assertEquals(2, pedidoService.read(null, 100).size());
+
+		BatchResultDto retomada = pedidoService.create(pedidos(2, -1));
+
+		assertNull(retomada.getErro());
+		assertEquals(4, pedidoService.read(null, 100).size());
+	}
+
+	/**
+	 * @param total registros da origem
+	 * @param falha posição em que a leitura falha (ex.: JSON inválido no meio do stream), -1 para nenhuma
+	 */
+	private static Iterator<PedidoDto> pedidos(int total, int falha) {
+		return new Iterator<>() {
+			int lidos;
+
+			@Override
+			public boolean hasNext() {
+				return lidos < total;
+			}
+
+			@Override
+			public PedidoDto next() {
+				if (lidos++ == falha) {
+					throw new IllegalStateException("registro inválido");
+				}
+				return new PedidoDto(null, new Date(), new ArrayList<>());
+			}
+		};
+	}
+}
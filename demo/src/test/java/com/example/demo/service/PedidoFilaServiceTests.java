@@ -0,0 +1,43 @@
+package com.example.demo.service;
+
+import com.example.demo.Dto.PedidoDto;
+import com.example.demo.Dto.SolicitacaoPedidoDto;
+import com.example.demo.Dto.SolicitacaoPedidoDto.Status;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:pedidos_fila;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+		"application.pedidos.fila.workers=1",
+		"application.pedidos.fila.lote=5",
+		"application.pedidos.fila.shutdown-timeout=0ms"
+})
+@ActiveProfiles("test")
+@DirtiesContext
+class PedidoFilaServiceTests {
+
+	@Autowired
+	PedidoFilaService pedidoFilaService;
+
+	@Test
+	void shutdownTimeoutStillWritesAcceptedOrders() {
+		List<String> ids = IntStream.range(0, 200)
+				.mapToObj(i -> pedidoFilaService.enfileirar(new PedidoDto(null, new Date(), new ArrayList<>())).getId())
+				.toList();
+
+		pedidoFilaService.stop();
+
+		List<Status> situacoes = ids.stream().map(pedidoFilaService::status).map(SolicitacaoPedidoDto::getStatus).distinct().toList();
+		assertEquals(List.of(Status.CONCLUIDO), situacoes);
+	}
+}
@@ -0,0 +1,199 @@
+package com.example.demo.service;
+
+import com.example.demo.Dto.ItensPedidoDto;
+import com.example.demo.Dto.PedidoDto;
+import com.example.demo.Dto.PedidoResumoDto;
+import com.example.demo.Dto.PedidoTotalDto;
+import com.example.demo.Dto.ProdutoDto;
+import com.example.demo.exception.ConflictException;
+import com.example.demo.exception.CustomHttpException;
+import com.example.demo.exception.UnprocessableEntityException;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Garante a quantidade de comandos SQL por leitura do agregado Pedido -> ItensPedido (sem N+1)
+ * e o ajuste do estoque quando os itens do pedido mudam.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class PedidoServiceTests {
+
+	private static final int PEDIDOS = 5;
+	private static final int ITENS_POR_PEDIDO = 3;
+
+	@Autowired
+	PedidoService pedidoService;
+
+	@Autowired
+	ProdutoService produtoService;
+
+	@Autowired
+	ItensPedidoService itensPedidoService;
+
+	@Autowired
+	EntityManagerFactory entityManagerFactory;
+
+	Statistics statistics;
+
+	@BeforeEach
+	void setUp() {
+		if (pedidoService.read(null, 1).isEmpty()) {
+			pedidoService.create(IntStream.range(0, PEDIDOS).mapToObj(i -> pedido()).iterator());
+		}
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+	}
+
+	@Test
+	void readPageLoadsItemsWithSingleQuery() {
+		List<PedidoDto> pedidos = pedidoService.read(null, 100);
+
+		assertEquals(PEDIDOS, pedidos.size());
+		pedidos.forEach(pedido -> assertEquals(ITENS_POR_PEDIDO, pedido.getItensPedido().size()));
+		// 1 select da página + 1 select IN dos itens
+		assertEquals(2, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	void readByIdUsesJoinFetch() {
+		Long nroPedido = pedidoService.read(null, 1).get(0).getNroPedido();
+		statistics.clear();
+
+		PedidoDto pedido = pedidoService.read(nroPedido.intValue());
+
+		assertEquals(ITENS_POR_PEDIDO, pedido.getItensPedido().size());
+		assertEquals(1, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	void streamLoadsItemsPerChunk() {
+		List<PedidoDto> pedidos = new ArrayList<>();
+
+		pedidoService.stream(pedidos::add);
+
+		assertEquals(PEDIDOS, pedidos.size());
+		pedidos.forEach(pedido -> assertEquals(ITENS_POR_PEDIDO, pedido.getItensPedido().size()));
+		// 1 cursor + 1 select IN por bloco (todos os pedidos cabem em um bloco)
+		assertEquals(2, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	void totalIsExactAndSingleQuery() {
+		Long nroPedido = pedidoService.read(null, 1).get(0).getNroPedido();
+		statistics.clear();
+
+		PedidoTotalDto total = pedidoService.total(nroPedido.intValue());
+
+		// 1 x 10.10 + 2 x 20.20 + 3 x 30.30
+		assertEquals(0, new BigDecimal("141.40").compareTo(total.getValTotal()));
+		assertEquals(ITENS_POR_PEDIDO, total.getQtdeItens().intValue());
+		assertEquals(1, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	void searchByProductReturnsProjectionWithSingleQuery() {
+		List<PedidoResumoDto> pedidos = pedidoService.buscar(null, null, 2L, null, 100);
+
+		assertEquals(PEDIDOS, pedidos.size());
+		// 1 select com EXISTS, nenhuma entidade carregada
+		assertEquals(1, statistics.getPrepareStatementCount());
+		assertEquals(0, statistics.getEntityLoadCount());
+	}
+
+	@Test
+	void itemChangesAndDeleteAdjustStock() {
+		ProdutoDto produto = produtoService.create(new ProdutoDto(null, "Produto do pedido", 10.0, new BigDecimal("1.00")));
+		Long idProduto = produto.getIdProduto();
+
+		PedidoDto pedido = pedidoService.create(new PedidoDto(null, new Date(), List.of(item(idProduto, 3))));
+		int nroPedido = pedido.getNroPedido().intValue();
+		assertEquals(7.0, produtoService.read(idProduto.intValue()).getQtdeProduto());
+
+		pedido.setItensPedido(List.of(item(idProduto, 4), item(idProduto, 1)));
+		pedidoService.update(nroPedido, pedido);
+		assertEquals(5.0, produtoService.read(idProduto.intValue()).getQtdeProduto());
+
+		ObjectNode patch = JsonNodeFactory.instance.objectNode();
+		patch.putArray("itensPedido").addObject().put("idProduto", idProduto).put("qtdeItem", 2).put("valUnidade", 1.00);
+		pedidoService.patch(nroPedido, patch);
+		assertEquals(8.0, produtoService.read(idProduto.intValue()).getQtdeProduto());
+
+		pedido.setItensPedido(List.of(item(idProduto, 11)));
+		assertThrows(ConflictException.class, () -> pedidoService.update(nroPedido, pedido));
+		assertEquals(8.0, produtoService.read(idProduto.intValue()).getQtdeProduto());
+
+		assertThrows(CustomHttpException.class, () -> pedidoService.patch(nroPedido, JsonNodeFactory.instance.objectNode().putNull("datPedido")));
+		assertTrue(pedidoService.patch(nroPedido, JsonNodeFactory.instance.objectNode().putNull("itensPedido")).getItensPedido().isEmpty());
+		assertEquals(10.0, produtoService.read(idProduto.intValue()).getQtdeProduto());
+
+		pedidoService.delete(nroPedido);
+		assertEquals(10.0, produtoService.read(idProduto.intValue()).getQtdeProduto());
+	}
+
+	@Test
+	void itemEndpointsAdjustStock() {
+		Long idProduto = produtoService.create(new ProdutoDto(null, "Produto do item", 10.0, new BigDecimal("1.00"))).getIdProduto();
+		Long nroPedido = pedidoService.create(new PedidoDto(null, new Date(), new ArrayList<>())).getNroPedido();
+
+		ItensPedidoDto novo = item(idProduto, 3);
+		novo.setNroPedido(nroPedido);
+		Integer id = itensPedidoService.create(novo).getId();
+		assertEquals(7.0, produtoService.read(idProduto.intValue()).getQtdeProduto());
+
+		novo.setQtdeItem(5);
+		itensPedidoService.update(id, novo);
+		assertEquals(5.0, produtoService.read(idProduto.intValue()).getQtdeProduto());
+
+		itensPedidoService.patch(id, JsonNodeFactory.instance.objectNode().put("qtdeItem", 2));
+		assertEquals(8.0, produtoService.read(idProduto.intValue()).getQtdeProduto());
+
+		assertThrows(ConflictException.class, () -> itensPedidoService.patch(id, JsonNodeFactory.instance.objectNode().put("qtdeItem", 20)));
+		assertThrows(UnprocessableEntityException.class,
+				() -> itensPedidoService.patch(id, JsonNodeFactory.instance.objectNode().put("nroPedido", -1L)));
+		assertEquals(8.0, produtoService.read(idProduto.intValue()).getQtdeProduto());
+
+		itensPedidoService.delete(id);
+		assertEquals(10.0, produtoService.read(idProduto.intValue()).getQtdeProduto());
+		pedidoService.delete(nroPedido.intValue());
+	}
+
+	private static ItensPedidoDto item(Long idProduto, int qtde) {
+		ItensPedidoDto item = new ItensPedidoDto();
+		item.setQtdeItem(qtde);
+		item.setIdProduto(idProduto);
+		item.setValUnidade(new BigDecimal("1.00"));
+		return item;
+	}
+
+	private static PedidoDto pedido() {
+		List<ItensPedidoDto> itens = new ArrayList<>();
+		for (int i = 1; i <= ITENS_POR_PEDIDO; i++) {
+			ItensPedidoDto item = new ItensPedidoDto();
+			item.setQtdeItem(i);
+			item.setIdProduto((long) i);
+			item.setValUnidade(new BigDecimal("10.10").multiply(BigDecimal.valueOf(i)));
+			itens.add(item);
+		}
+		return new PedidoDto(null, new Date(), itens);
+	}
+
+}
@@ -0,0 +1,180 @@
+package com.example.demo.service;
+
+import com.example.demo.Dto.MultiGetDto;
+import com.example.demo.Dto.ProdutoDto;
+import com.example.demo.config.CacheConfig;
+import com.example.demo.exception.ConflictException;
+import com.example.demo.exception.CustomHttpException;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Reserva de estoque sob concorrência: nunca vende mais do que o estoque disponível.
+ * Atualização com lock otimista: versão desatualizada é recusada, sem sobrescrever reservas.
+ */
+@Slf4j
+@SpringBootTest
+@ActiveProfiles("test")
+class ProdutoServiceTests {
+
+	private static final int ESTOQUE = 100;
+	private static final int THREADS = 16;
+	private static final int RESERVAS = 400;
+
+	@Autowired
+	ProdutoService produtoService;
+
+	@Autowired
+	CacheManager cacheManager;
+
+	@Test
+	void concurrentReservationsNeverOversell() throws InterruptedException {
+		ProdutoDto produto = produtoService.create(new ProdutoDto(null, "Produto concorrido", (double) ESTOQUE, new BigDecimal("9.90")));
+		Long idProduto = produto.getIdProduto();
+		AtomicInteger reservadas = new AtomicInteger();
+		AtomicInteger recusadas = new AtomicInteger();
+		CountDownLatch largada = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+		for (int i = 0; i < RESERVAS; i++) {
+			executor.execute(() -> {
+				try {
+					largada.await();
+					produtoService.reservar(idProduto, 1);
+					reservadas.incrementAndGet();
+				} catch (ConflictException e) {
+					recusadas.incrementAndGet();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			});
+		}
+		long inicio = System.nanoTime();
+		largada.countDown();
+		executor.shutdown();
+		assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+		double segundos = (System.nanoTime() - inicio) / 1e9;
+		log.info("{} reservas em {} s ({} reservas/s)", RESERVAS, segundos, Math.round(RESERVAS / segundos));
+
+		assertEquals(ESTOQUE, reservadas.get());
+		assertEquals(RESERVAS - ESTOQUE, recusadas.get());
+		assertEquals(0.0, produtoService.read(idProduto.intValue()).getQtdeProduto());
+	}
+
+	@Test
+	void reservationRefreshesCachedProduct() {
+		ProdutoDto produto = produtoService.create(new ProdutoDto(null, "Produto em cache", 10.0, new BigDecimal("1.00")));
+		int idProduto = produto.getIdProduto().intValue();
+		produtoService.read(idProduto);
+
+		produtoService.reservar(produto.getIdProduto(), 3);
+
+		ProdutoDto cacheado = cacheManager.getCache(CacheConfig.PRODUTOS).get(idProduto, ProdutoDto.class);
+		assertNotNull(cacheado);
+		assertEquals(7.0, cacheado.getQtdeProduto());
+		assertEquals(produto.getVersao() + 1, cacheado.getVersao());
+	}
+
+	@Test
+	void updateWithStaleVersionKeepsReservation() {
+		ProdutoDto produto = produtoService.create(new ProdutoDto(null, "Produto", 10.0, new BigDecimal("1.00")));
+		int idProduto = produto.getIdProduto().intValue();
+		produtoService.reservar(produto.getIdProduto(), 3); //depois da leitura do cliente
+
+		produto.setDesPro("Produto renomeado");
+		assertThrows(ConflictException.class, () -> produtoService.update(idProduto, produto));
+		assertEquals(7.0, produtoService.read(idProduto).getQtdeProduto());
+
+		ProdutoDto atual = produtoService.read(idProduto);
+		atual.setDesPro("Produto renomeado");
+		ProdutoDto atualizado = produtoService.update(idProduto, atual);
+
+		assertEquals("Produto renomeado", atualizado.getDesPro());
+		assertEquals(7.0, atualizado.getQtdeProduto());
+		assertEquals(atual.getVersao() + 1, atualizado.getVersao());
+	}
+
+	@Test
+	void concurrentUpdatesWithSameVersionOnlyOneWins() throws InterruptedException {
+		ProdutoDto produto = produtoService.create(new ProdutoDto(null, "Produto", (double) ESTOQUE, new BigDecimal("1.00")));
+		int idProduto = produto.getIdProduto().intValue();
+		AtomicInteger gravados = new AtomicInteger();
+		AtomicInteger conflitos = new AtomicInteger();
+		CountDownLatch largada = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+		for (int i = 0; i < THREADS; i++) {
+			ProdutoDto alteracao = new ProdutoDto(null, "Produto " + i, (double) i, new BigDecimal("1.00"), produto.getVersao());
+			executor.execute(() -> {
+				try {
+					largada.await();
+					produtoService.update(idProduto, alteracao);
+					gravados.incrementAndGet();
+				} catch (ConflictException e) {
+					conflitos.incrementAndGet();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			});
+		}
+		largada.countDown();
+		executor.shutdown();
+		assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+
+		assertEquals(1, gravados.get());
+		assertEquals(THREADS - 1, conflitos.get());
+		assertEquals(produto.getVersao() + 1, produtoService.read(idProduto).getVersao());
+	}
+
+	@Test
+	void patchChangesOnlySuppliedFields() {
+		ProdutoDto produto = produtoService.create(new ProdutoDto(null, "Produto", 10.0, new BigDecimal("1.00")));
+		ObjectNode patch = JsonNodeFactory.instance.objectNode().put("valProduto", new BigDecimal("2.50"));
+
+		ProdutoDto atualizado = produtoService.patch(produto.getIdProduto().intValue(), patch);
+
+		assertEquals("Produto", atualizado.getDesPro());
+		assertEquals(10.0, atualizado.getQtdeProduto());
+		assertEquals(new BigDecimal("2.50"), atualizado.getValProduto());
+	}
+
+	@Test
+	void patchRejectsStockQuantity() {
+		ProdutoDto produto = produtoService.create(new ProdutoDto(null, "Produto", 10.0, new BigDecimal("1.00")));
+		ObjectNode patch = JsonNodeFactory.instance.objectNode().put("qtdeProduto", 3.0);
+
+		assertThrows(CustomHttpException.class, () -> produtoService.patch(produto.getIdProduto().intValue(), patch));
+		assertEquals(10.0, produtoService.read(produto.getIdProduto().intValue()).getQtdeProduto());
+	}
+
+	@Test
+	void readAllKeepsRequestOrderAndReportsMissingIds() {
+		int a = produtoService.create(new ProdutoDto(null, "A", 1.0, new BigDecimal("1.00"))).getIdProduto().intValue();
+		int b = produtoService.create(new ProdutoDto(null, "B", 1.0, new BigDecimal("1.00"))).getIdProduto().intValue();
+		produtoService.read(a); //a fica no cache, b vem do banco
+
+		MultiGetDto<ProdutoDto, Integer> resultado = produtoService.readAll(List.of(b, -1, a, b));
+
+		assertEquals(List.of("B", "A"), resultado.getEncontrados().stream().map(ProdutoDto::getDesPro).toList());
+		assertEquals(List.of(-1), resultado.getNaoEncontrados());
+	}
+}